@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.dirtpowered.dirtmv.data.chunk.storage;
+
+import com.github.dirtpowered.dirtmv.data.transformers.block.Block;
+import com.github.dirtpowered.dirtmv.data.transformers.block.ItemBlockDataTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per block copying through {@link com.github.dirtpowered.dirtmv.data.chunk.Chunk}
+ * with {@link BetaChunkTransposer}. Setup fails if both don't give the same chunk
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BetaChunkTransposerBenchmark {
+    private static final int BLOCKS = 16 * 16 * 128;
+
+    // sections from this one up are all air
+    private static final int FIRST_AIR_SECTION = 5;
+
+    @Param({"true", "false"})
+    private boolean skylight;
+
+    private final ItemBlockDataTransformer transformer = new DoorRemapper();
+    private final V1_3BChunkStorage oldChunk = new V1_3BChunkStorage(0, 0);
+    private byte[] chunkData;
+
+    @Setup
+    public void setup() {
+        chunkData = createChunkData(new Random(0));
+
+        compare(perBlock(), transposer());
+    }
+
+    @Benchmark
+    public V1_2RChunkStorage perBlock() {
+        loadChunk();
+
+        V1_2RChunkStorage newChunk = new V1_2RChunkStorage(skylight, true, 0, 0);
+        transformer.remap(oldChunk.getBlockArray(), oldChunk.getBlockDataArray());
+
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 128; y++) {
+                for (int z = 0; z < 16; z++) {
+                    newChunk.setBlockId(x, y, z, oldChunk.getBlockId(x, y, z));
+                    newChunk.setBlockMetadata(x, y, z, oldChunk.getBlockData(x, y, z));
+                    newChunk.setBlockLight(x, y, z, oldChunk.getBlockLight(x, y, z));
+                    if (skylight) {
+                        newChunk.setSkyLight(x, y, z, oldChunk.getSkyLight(x, y, z));
+                    }
+                }
+            }
+        }
+
+        return newChunk;
+    }
+
+    @Benchmark
+    public V1_2RChunkStorage transposer() {
+        loadChunk();
+
+        V1_2RChunkStorage newChunk = new V1_2RChunkStorage(skylight, true, 0, 0);
+        BetaChunkTransposer.transpose(oldChunk, newChunk, transformer);
+
+        return newChunk;
+    }
+
+    private void loadChunk() {
+        // per block version replaces blocks in place, every run starts from the same chunk
+        oldChunk.setChunkData(chunkData, 0, 0, 0, 16, 128, 16, 0, true);
+    }
+
+    private static byte[] createChunkData(Random random) {
+        byte[] data = new byte[BLOCKS + BLOCKS / 2 * 3];
+        random.nextBytes(data);
+
+        for (int i = 0; i < BLOCKS; i++) {
+            int y = i & 127;
+
+            if (y >> 4 >= FIRST_AIR_SECTION) {
+                data[i] = 0;
+                data[BLOCKS + (i >> 1)] = 0;
+            } else if (random.nextInt(8) == 0) {
+                // doors have replacements
+                data[i] = (byte) (random.nextBoolean() ? 64 : 71);
+            }
+        }
+
+        return data;
+    }
+
+    private void compare(V1_2RChunkStorage expected, V1_2RChunkStorage actual) {
+        for (int i = 0; i < 16; i++) {
+            ExtendedBlockStorage first = expected.getColumnStorage()[i];
+            ExtendedBlockStorage second = actual.getColumnStorage()[i];
+
+            check(i, "block", first.getBlockLSBArray(), second.getBlockLSBArray());
+            check(i, "data", first.getBlockMetadataArray().getData(), second.getBlockMetadataArray().getData());
+            check(i, "block light", first.getBlockLightArray().getData(), second.getBlockLightArray().getData());
+
+            if (skylight) {
+                check(i, "sky light", first.getSkylightArray().getData(), second.getSkylightArray().getData());
+            }
+        }
+    }
+
+    private static void check(int section, String name, byte[] expected, byte[] actual) {
+        if (!Arrays.equals(expected, actual)) {
+            throw new IllegalStateException("Different " + name + " array in section " + section);
+        }
+    }
+
+    private static class DoorRemapper extends ItemBlockDataTransformer {
+
+        @Override
+        public void registerReplacements() {
+            for (int data = 9; data < 16; data++) {
+                addBlockReplacement(64, data, new Block(64, 8));
+                addBlockReplacement(71, data, new Block(71, 8));
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.dirtpowered.dirtmv.data.protocol.types;
+
+import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.Type;
+import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
+import com.github.dirtpowered.dirtmv.data.protocol.TypeObject;
+import com.github.dirtpowered.dirtmv.data.protocol.io.NettyInputWrapper;
+import com.github.dirtpowered.dirtmv.data.protocol.io.NettyOutputWrapper;
+import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
+import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
+import com.github.dirtpowered.dirtmv.data.protocol.types.netty.V1_7StringDataType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares string codecs writing directly to packet buffers with the old ones going through
+ * char by char writes and temporary byte arrays. Setup fails if they don't give the same
+ * bytes and strings. UCS-2 strings must survive round trip even with unpaired surrogates,
+ * UTF-8 replaces them with '?' in both versions
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringDataTypeBenchmark {
+    private static final String NAME = "Notch_1234";
+    private static final String CHAT = "§e<Notch_1234> §fhas anyone seen my diamond pickaxe? "
+            + "I left it in the chest near spawn, last seen yesterday";
+    private static final String SURROGATES = "😀 smile 🎉 party 𝐀 math";
+
+    private static final String[] UNPAIRED = {
+            "\uD83D", "\uDE00", "ab\uD83Dcd", "ab\uDE00\uD83Dcd", "😀\uD83D", "\uD83D§", "\uD83D\uD83D\uDE00"
+    };
+
+    private static final DataType<String> UCS2 = new StringDataType();
+    private static final DataType<String> UTF8 = new UTF8StringDataType();
+    private static final DataType<String> V1_7_UTF8 = new V1_7StringDataType();
+
+    @Param({"name", "chat", "surrogates"})
+    private String text;
+
+    private String string;
+    private ByteBuf buf;
+    private PacketOutput output;
+    private ByteBuf ucs2;
+    private ByteBuf utf8;
+    private PacketInput ucs2Input;
+    private PacketInput utf8Input;
+
+    @Setup
+    public void setup() throws IOException {
+        checkCodecs();
+
+        string = text.equals("name") ? NAME : text.equals("chat") ? CHAT : SURROGATES;
+
+        buf = PooledByteBufAllocator.DEFAULT.directBuffer(1024);
+        output = new NettyOutputWrapper(buf);
+
+        ucs2 = encode(UCS2, string);
+        utf8 = encode(V1_7_UTF8, string);
+
+        ucs2Input = new NettyInputWrapper(ucs2);
+        utf8Input = new NettyInputWrapper(utf8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buf.release();
+        ucs2.release();
+        utf8.release();
+    }
+
+    @Benchmark
+    public String readUcs2Old() {
+        ucs2.readerIndex(0);
+        return readOldUcs2(ucs2Input);
+    }
+
+    @Benchmark
+    public String readUcs2() throws IOException {
+        ucs2.readerIndex(0);
+        return UCS2.read(ucs2Input);
+    }
+
+    @Benchmark
+    public ByteBuf writeUcs2Old() {
+        buf.clear();
+        writeOldUcs2(output, string);
+
+        return buf;
+    }
+
+    @Benchmark
+    public ByteBuf writeUcs2() throws IOException {
+        buf.clear();
+        UCS2.write(new TypeHolder<>(Type.STRING, string), output);
+
+        return buf;
+    }
+
+    @Benchmark
+    public String readUtf8Old() {
+        utf8.readerIndex(0);
+        return readOldUtf8(utf8Input, true);
+    }
+
+    @Benchmark
+    public String readUtf8() throws IOException {
+        utf8.readerIndex(0);
+        return V1_7_UTF8.read(utf8Input);
+    }
+
+    @Benchmark
+    public ByteBuf writeUtf8Old() {
+        buf.clear();
+        writeOldUtf8(output, string, true);
+
+        return buf;
+    }
+
+    @Benchmark
+    public ByteBuf writeUtf8() throws IOException {
+        buf.clear();
+        V1_7_UTF8.write(new TypeHolder<>(Type.V1_7_STRING, string), output);
+
+        return buf;
+    }
+
+    private void checkCodecs() throws IOException {
+        for (String sample : new String[]{"", NAME, CHAT, SURROGATES}) {
+            check(sample, true);
+        }
+
+        for (String sample : UNPAIRED) {
+            check(sample, false);
+        }
+    }
+
+    private void check(String sample, boolean wellFormed) throws IOException {
+        ByteBuf expected = PooledByteBufAllocator.DEFAULT.directBuffer();
+
+        try {
+            writeOldUcs2(new NettyOutputWrapper(expected), sample);
+            checkCodec(UCS2, Type.STRING, sample, expected, true);
+
+            expected.clear();
+            writeOldUtf8(new NettyOutputWrapper(expected), sample, false);
+            checkCodec(UTF8, Type.UTF8_STRING, sample, expected, wellFormed);
+
+            expected.clear();
+            writeOldUtf8(new NettyOutputWrapper(expected), sample, true);
+            checkCodec(V1_7_UTF8, Type.V1_7_STRING, sample, expected, wellFormed);
+        } finally {
+            expected.release();
+        }
+    }
+
+    private void checkCodec(DataType<String> dataType, TypeObject<String> type,
+                            String sample, ByteBuf expected, boolean roundTrip) throws IOException {
+
+        ByteBuf actual = encode(dataType, type, sample);
+
+        try {
+            if (!ByteBufUtil.equals(expected, actual)) {
+                throw new IllegalStateException(dataType.getClass().getSimpleName() + " wrote different bytes for " + escape(sample));
+            }
+
+            String oldString = dataType == UCS2 ? readOldUcs2(new NettyInputWrapper(expected))
+                    : readOldUtf8(new NettyInputWrapper(expected), dataType == V1_7_UTF8);
+            String newString = dataType.read(new NettyInputWrapper(actual));
+
+            if (!oldString.equals(newString) || roundTrip && !sample.equals(newString)) {
+                throw new IllegalStateException(dataType.getClass().getSimpleName() + " read different string for " + escape(sample));
+            }
+
+            if (actual.isReadable()) {
+                throw new IllegalStateException(dataType.getClass().getSimpleName() + " didn't read whole string " + escape(sample));
+            }
+        } finally {
+            actual.release();
+        }
+    }
+
+    private static ByteBuf encode(DataType<String> dataType, String string) throws IOException {
+        return encode(dataType, dataType == UCS2 ? Type.STRING : Type.V1_7_STRING, string);
+    }
+
+    private static ByteBuf encode(DataType<String> dataType, TypeObject<String> type,
+                                  String string) throws IOException {
+
+        ByteBuf encoded = PooledByteBufAllocator.DEFAULT.directBuffer();
+        dataType.write(new TypeHolder<>(type, string), new NettyOutputWrapper(encoded));
+
+        return encoded;
+    }
+
+    private static String escape(String string) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < string.length(); i++) {
+            sb.append(String.format("\\u%04x", (int) string.charAt(i)));
+        }
+
+        return sb.toString();
+    }
+
+    // codecs before strings were encoded directly on buffers
+
+    private static String readOldUcs2(PacketInput packetInput) {
+        short stringLength = packetInput.readShort();
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < stringLength; i++) {
+            String s = String.valueOf(packetInput.readChar());
+            sb.append(s);
+        }
+
+        return sb.toString();
+    }
+
+    private static void writeOldUcs2(PacketOutput packetOutput, String string) {
+        packetOutput.writeShort(string.length());
+
+        for (char c : string.toCharArray()) {
+            packetOutput.writeChar(c);
+        }
+    }
+
+    private static String readOldUtf8(PacketInput packetInput, boolean varInt) {
+        int length = varInt ? packetInput.readVarInt() : packetInput.readShort();
+
+        return new String(packetInput.readBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeOldUtf8(PacketOutput packetOutput, String string, boolean varInt) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        if (varInt) {
+            packetOutput.writeVarInt(bytes.length);
+        } else {
+            packetOutput.writeShort(bytes.length);
+        }
+
+        packetOutput.writeBytes(bytes);
+    }
+}
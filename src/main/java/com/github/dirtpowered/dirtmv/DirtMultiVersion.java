@@ -25,6 +25,9 @@ package com.github.dirtpowered.dirtmv;
 import com.github.dirtpowered.dirtmv.api.Configuration;
 import com.github.dirtpowered.dirtmv.config.YamlConfig;
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.chunk.ChunkBuffers;
+import com.github.dirtpowered.dirtmv.data.chunk.ChunkCache;
+import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.definitions.B1_3.V1_3BProtocol;
 import com.github.dirtpowered.dirtmv.data.protocol.definitions.B1_4.V1_4BProtocol;
 import com.github.dirtpowered.dirtmv.data.protocol.definitions.B1_5.V1_5BProtocol;
@@ -44,6 +47,8 @@ import com.github.dirtpowered.dirtmv.data.protocol.definitions.R1_8.V1_8RProtoco
 import com.github.dirtpowered.dirtmv.data.registry.ProtocolRegistry;
 import com.github.dirtpowered.dirtmv.data.registry.TranslatorRegistry;
 import com.github.dirtpowered.dirtmv.data.utils.ChatUtils;
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
+import com.github.dirtpowered.dirtmv.data.utils.StringPool;
 import com.github.dirtpowered.dirtmv.network.server.Server;
 import com.github.dirtpowered.dirtmv.network.server.ServerSession;
 import com.github.dirtpowered.dirtmv.network.versions.Beta10To9.ProtocolBeta10To9;
@@ -51,6 +56,7 @@ import com.github.dirtpowered.dirtmv.network.versions.Beta11To10.ProtocolBeta11T
 import com.github.dirtpowered.dirtmv.network.versions.Beta13To11.ProtocolBeta13To11;
 import com.github.dirtpowered.dirtmv.network.versions.Beta14To13.ProtocolBeta14To13;
 import com.github.dirtpowered.dirtmv.network.versions.Beta17To14.ProtocolBeta17to14;
+import com.github.dirtpowered.dirtmv.network.versions.Beta17To14.storage.WorldShadow;
 import com.github.dirtpowered.dirtmv.network.versions.Release22To17.ProtocolRelease22To17;
 import com.github.dirtpowered.dirtmv.network.versions.Release23To22.ProtocolRelease23To22;
 import com.github.dirtpowered.dirtmv.network.versions.Release28To23.ProtocolRelease28To23;
@@ -64,17 +70,17 @@ import com.github.dirtpowered.dirtmv.network.versions.Release60To51.ProtocolRele
 import com.github.dirtpowered.dirtmv.network.versions.Release73To61.ProtocolRelease73To61;
 import com.github.dirtpowered.dirtmv.network.versions.Release74To73.ProtocolRelease74To73;
 import com.github.dirtpowered.dirtmv.network.versions.Release78To74.ProtocolRelease78To74;
-import com.github.dirtpowered.dirtmv.session.MultiSession;
 import com.github.dirtpowered.dirtmv.session.SessionRegistry;
+import com.github.dirtpowered.dirtmv.session.TickTimings;
 import com.github.dirtpowered.dirtmv.viaversion.ViaPlugin;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import lombok.Getter;
 import org.pmw.tinylog.Logger;
 
 import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -85,18 +91,29 @@ public class DirtMultiVersion implements Runnable {
     private final TranslatorRegistry translatorRegistry;
     private final Random sharedRandom;
     private final Configuration configuration;
-    private final EventLoopGroup loopGroup;
     private final Server server;
+    private final TickTimings tickTimings;
+    private final ChunkCache chunkCache;
+    private final ForkJoinPool chunkWorkerPool;
+    private final WorldShadow worldShadow;
     private ViaPlugin viaPlugin;
+    private int currentTick;
 
     private DirtMultiVersion() {
         sharedRandom = new Random();
-        loopGroup = new NioEventLoopGroup(Runtime.getRuntime().availableProcessors());
         executorService = Executors.newCachedThreadPool();
         configuration = new YamlConfig();
+        CompressionService.configure(configuration);
+        ChunkBuffers.configure(configuration);
+        PacketData.setLeakDetection(configuration.isDebugMode());
+        StringPool.configure(configuration);
+        chunkCache = new ChunkCache(configuration);
+        chunkWorkerPool = createChunkWorkerPool(configuration.getChunkWorkerThreads());
+        worldShadow = configuration.sharedWorldShadow() ? new WorldShadow() : null;
         translatorRegistry = new TranslatorRegistry(this);
         server = new Server(this);
         sessionRegistry = new SessionRegistry();
+        tickTimings = new TickTimings();
 
         // register supported protocols
         ProtocolRegistry.registerProtocol(MinecraftVersion.B1_3, new V1_3BProtocol());
@@ -140,7 +157,7 @@ public class DirtMultiVersion implements Runnable {
         translatorRegistry.registerTranslator(new ProtocolBeta11To10());
         translatorRegistry.registerTranslator(new ProtocolBeta10To9());
 
-        // start tick-loop
+        // start global tick-loop, sessions are ticked on their own event loops
         setupGlobalTask();
 
         if (configuration.enableViaVersion()) {
@@ -157,8 +174,6 @@ public class DirtMultiVersion implements Runnable {
                 }
             });
 
-            // release loop group
-            loopGroup.shutdownGracefully();
             server.stop();
 
             Logger.info("bye!");
@@ -171,6 +186,19 @@ public class DirtMultiVersion implements Runnable {
         new DirtMultiVersion();
     }
 
+    private ForkJoinPool createChunkWorkerPool(int threads) {
+        if (threads <= 0) {
+            return null;
+        }
+
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Chunk Worker #" + thread.getPoolIndex());
+
+            return thread;
+        }, null, false);
+    }
+
     private void setupGlobalTask() {
         ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "Main Thread"));
         executor.scheduleAtFixedRate(this, 0L, 50L, TimeUnit.MILLISECONDS);
@@ -182,8 +210,24 @@ public class DirtMultiVersion implements Runnable {
             if (this.viaPlugin != null) {
                 this.viaPlugin.tick();
             }
-            for (MultiSession val : sessionRegistry.getSessions().values()) {
-                val.getServerSession().tick();
+
+            // print tick timings every minute
+            if (configuration.isDebugMode() && ++currentTick % 1200 == 0) {
+                Logger.debug("tick overruns: {}", tickTimings.getOverruns().sum());
+
+                tickTimings.getTimings().forEach((type, timing) -> Logger.debug("{}: avg {}ms, max {}ms",
+                        type.getSimpleName(), timing.getAverageMillis(), timing.getMaxMillis()));
+
+                Logger.debug("chunk cache: {} entries, {} hits, {} misses, {} evictions, hit rate {}",
+                        chunkCache.getSize(), chunkCache.getHits(), chunkCache.getMisses(),
+                        chunkCache.getEvictions(), String.format("%.2f", chunkCache.getHitRate()));
+
+                Logger.debug("string pool: {} hits, {} misses, hit rate {}",
+                        StringPool.getHits(), StringPool.getMisses(), String.format("%.2f", StringPool.getHitRate()));
+
+                if (worldShadow != null) {
+                    Logger.debug("world shadow: {} chunks", worldShadow.getSize());
+                }
             }
         } catch (Exception e) {
             Logger.error("Exception in tick loop: {}", e.getMessage());
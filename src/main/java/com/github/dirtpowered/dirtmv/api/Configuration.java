@@ -68,7 +68,10 @@ public interface Configuration {
 
     /**
      * Caches blocks only above Y 20 (for b1.7 servers)
+     *
+     * @deprecated block cache allocates only non-empty sections now, option is ignored
      */
+    @Deprecated
     boolean reduceBlockStorageMemory();
 
     /**
@@ -106,4 +109,104 @@ public interface Configuration {
      * again after a recent connection attempt
      */
     int getConnectionThrottleTime();
+
+    /**
+     * Flushes packets once per read burst instead of after every packet
+     */
+    boolean enableFlushConsolidation();
+
+    /**
+     * Max packets written before flush is forced
+     */
+    int getFlushMaxPackets();
+
+    /**
+     * Max pending bytes before flush is forced
+     */
+    int getFlushMaxBytes();
+
+    /**
+     * Max time (in milliseconds) written packet can wait for flush
+     */
+    int getFlushMaxDelay();
+
+    /**
+     * Network transport (auto, epoll, io_uring, nio)
+     */
+    String getTransport();
+
+    /**
+     * TCP fast open queue length, 0 to disable (epoll only)
+     */
+    int getTcpFastOpen();
+
+    /**
+     * Allows multiple proxy instances to bind the same port (epoll only)
+     */
+    boolean isReusePort();
+
+    /**
+     * Socket send buffer size, 0 for system default
+     */
+    int getSendBufferSize();
+
+    /**
+     * Socket receive buffer size, 0 for system default
+     */
+    int getReceiveBufferSize();
+
+    /**
+     * Max deferred packets delivered in one tick
+     */
+    int getDeferredPacketsPerTick();
+
+    /**
+     * Max deferred packets waiting for delivery, whole backlog is sent at once when it's exceeded
+     */
+    int getDeferredQueueLimit();
+
+    /**
+     * Beta chunk data compression level (0-9, -1 for zlib default)
+     */
+    int getBetaChunkCompressionLevel();
+
+    /**
+     * Chunk data compression level (0-9, -1 for zlib default, r1.2+)
+     */
+    int getChunkCompressionLevel();
+
+    /**
+     * Packet compression level (0-9, -1 for zlib default, r1.8+)
+     */
+    int getPacketCompressionLevel();
+
+    /**
+     * Shared chunk translation cache size in megabytes, 0 to disable
+     */
+    int getChunkCacheSize();
+
+    /**
+     * Chunk bulk translation threads, 0 to translate on network threads
+     */
+    int getChunkWorkerThreads();
+
+    /**
+     * Max chunk bulks of one player translated at the same time
+     */
+    int getChunkWorkerMaxBulks();
+
+    /**
+     * Share cached world blocks between all players instead of keeping a copy per player
+     */
+    boolean sharedWorldShadow();
+
+    /**
+     * Allocate temporary chunk buffers outside of java heap
+     */
+    boolean offHeapChunkBuffers();
+
+    /**
+     * Amount of short strings (names, channels, sounds) cached by string pool, 0 disables it
+     */
+    int getStringPoolSize();
 }
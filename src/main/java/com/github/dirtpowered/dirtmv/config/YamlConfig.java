@@ -98,6 +98,7 @@ public class YamlConfig implements Configuration {
     }
 
     @Override
+    @Deprecated
     public boolean reduceBlockStorageMemory() {
         return (Boolean) objects.getOrDefault("reduce_blockstorage_memory", false);
     }
@@ -136,4 +137,104 @@ public class YamlConfig implements Configuration {
     public int getConnectionThrottleTime() {
         return (int) objects.getOrDefault("connection_throttle", 350);
     }
+
+    @Override
+    public boolean enableFlushConsolidation() {
+        return (boolean) objects.getOrDefault("flush_consolidation", true);
+    }
+
+    @Override
+    public int getFlushMaxPackets() {
+        return (int) objects.getOrDefault("flush_max_packets", 64);
+    }
+
+    @Override
+    public int getFlushMaxBytes() {
+        return (int) objects.getOrDefault("flush_max_bytes", 32768);
+    }
+
+    @Override
+    public int getFlushMaxDelay() {
+        return (int) objects.getOrDefault("flush_max_delay", 5);
+    }
+
+    @Override
+    public String getTransport() {
+        return (String) objects.getOrDefault("transport", "auto");
+    }
+
+    @Override
+    public int getTcpFastOpen() {
+        return (int) objects.getOrDefault("tcp_fastopen", 0);
+    }
+
+    @Override
+    public boolean isReusePort() {
+        return (boolean) objects.getOrDefault("so_reuseport", false);
+    }
+
+    @Override
+    public int getSendBufferSize() {
+        return (int) objects.getOrDefault("so_sndbuf", 0);
+    }
+
+    @Override
+    public int getReceiveBufferSize() {
+        return (int) objects.getOrDefault("so_rcvbuf", 0);
+    }
+
+    @Override
+    public int getDeferredPacketsPerTick() {
+        return (int) objects.getOrDefault("deferred_packets_per_tick", 32);
+    }
+
+    @Override
+    public int getDeferredQueueLimit() {
+        return (int) objects.getOrDefault("deferred_queue_limit", 2048);
+    }
+
+    @Override
+    public int getBetaChunkCompressionLevel() {
+        return (int) objects.getOrDefault("beta_chunk_compression_level", 1);
+    }
+
+    @Override
+    public int getChunkCompressionLevel() {
+        return (int) objects.getOrDefault("chunk_compression_level", -1);
+    }
+
+    @Override
+    public int getPacketCompressionLevel() {
+        return (int) objects.getOrDefault("packet_compression_level", -1);
+    }
+
+    @Override
+    public int getChunkCacheSize() {
+        return (int) objects.getOrDefault("chunk_cache_size", 64);
+    }
+
+    @Override
+    public int getChunkWorkerThreads() {
+        return (int) objects.getOrDefault("chunk_worker_threads", 2);
+    }
+
+    @Override
+    public int getChunkWorkerMaxBulks() {
+        return (int) objects.getOrDefault("chunk_worker_max_bulks", 4);
+    }
+
+    @Override
+    public boolean sharedWorldShadow() {
+        return (Boolean) objects.getOrDefault("shared_world_shadow", false);
+    }
+
+    @Override
+    public boolean offHeapChunkBuffers() {
+        return (Boolean) objects.getOrDefault("off_heap_chunk_buffers", false);
+    }
+
+    @Override
+    public int getStringPoolSize() {
+        return (int) objects.getOrDefault("string_pool_size", 4096);
+    }
 }
\ No newline at end of file
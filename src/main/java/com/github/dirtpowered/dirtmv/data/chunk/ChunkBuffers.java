@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.data.chunk;
+
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import lombok.Getter;
+
+/**
+ * Pooled scratch buffers for chunk translation. Buffers come from netty arenas which live
+ * as long as the proxy, so big temporary chunk arrays don't end up in the young generation.
+ * Every buffer has to be released explicitly after use
+ */
+public class ChunkBuffers {
+    private static final PooledByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    @Getter
+    private static boolean offHeap;
+
+    public static void configure(Configuration configuration) {
+        offHeap = configuration.offHeapChunkBuffers();
+    }
+
+    /**
+     * Allocates pooled buffer, direct if off-heap chunk buffers are enabled
+     *
+     * @param initialCapacity Initial capacity, buffer grows when needed
+     */
+    public static ByteBuf allocate(int initialCapacity) {
+        return offHeap ? ALLOCATOR.directBuffer(initialCapacity) : ALLOCATOR.heapBuffer(initialCapacity);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.dirtpowered.dirtmv.data.chunk;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Translated chunk columns shared between sessions. All players see the same backend
+ * world, so the same column doesn't have to be translated again for every player.
+ * Entries are matched against the source bytes, hash collisions never return a wrong chunk
+ */
+public class ChunkCache {
+    private final Cache<Key, Entry> cache;
+    private final boolean enabled;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ChunkCache(Configuration configuration) {
+        long maxWeight = configuration.getChunkCacheSize() * 1024L * 1024L;
+
+        this.enabled = maxWeight > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxWeight, 0))
+                .weigher((Key key, Entry entry) -> entry.getWeight())
+                .expireAfterAccess(5, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @param version   Version chunk was translated to
+     * @param dimension Dimension id
+     * @param chunkX    Chunk X
+     * @param chunkZ    Chunk Z
+     * @param bitmap    Primary bitmap of source chunk
+     * @param source    Raw upstream chunk bytes
+     * @return Cached translation or null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(MinecraftVersion version, int dimension, int chunkX, int chunkZ, int bitmap, byte[] source) {
+        if (!enabled || source == null) {
+            return null;
+        }
+
+        Entry entry = cache.getIfPresent(new Key(version, dimension, chunkX, chunkZ, Arrays.hashCode(source)));
+
+        if (entry == null || entry.getBitmap() != bitmap || !Arrays.equals(entry.getSource(), source)) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return (T) entry.getValue();
+    }
+
+    /**
+     * Stores translated chunk, value has to be treated as read-only by all users
+     *
+     * @param weight Approximate size of value in bytes
+     */
+    public void put(MinecraftVersion version, int dimension, int chunkX, int chunkZ, int bitmap, byte[] source,
+                    Object value, int weight) {
+        if (!enabled || source == null) {
+            return;
+        }
+
+        Key key = new Key(version, dimension, chunkX, chunkZ, Arrays.hashCode(source));
+        cache.put(key, new Entry(bitmap, source, value, source.length + weight));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return cache.stats().evictionCount();
+    }
+
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+
+        return total == 0 ? 0 : hitCount / (double) total;
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Key {
+        private MinecraftVersion version;
+        private int dimension;
+        private int chunkX;
+        private int chunkZ;
+        private int hash;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class Entry {
+        private int bitmap;
+        private byte[] source;
+        private Object value;
+        private int weight;
+    }
+}
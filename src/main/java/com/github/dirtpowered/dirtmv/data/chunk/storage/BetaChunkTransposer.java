@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.dirtpowered.dirtmv.data.chunk.storage;
+
+import com.github.dirtpowered.dirtmv.data.transformers.block.ItemBlockDataTransformer;
+
+/**
+ * Converts beta chunk (XZY order, 128 blocks high) into r1.2 sections (YZX order) working
+ * directly on raw arrays. Block replacement is done in the same pass
+ */
+public class BetaChunkTransposer {
+    private static final int SECTIONS = 8;
+
+    /**
+     * @param from        Full beta chunk
+     * @param to          Target chunk, skylight is copied only if it has one
+     * @param transformer Block replacements
+     */
+    public static void transpose(V1_3BChunkStorage from, V1_2RChunkStorage to, ItemBlockDataTransformer transformer) {
+        byte[] ids = from.getBlockArray();
+        byte[] data = from.getBlockDataArray().getData();
+        byte[] blockLight = from.getBlockLightArray().getData();
+        byte[] skyLight = from.getSkyLightArray().getData();
+
+        boolean hasSkylight = to.isSkylight();
+        boolean airUnchanged = transformer.remapBlock(0, 0) == 0;
+
+        for (int section = 0; section < SECTIONS; section++) {
+            ExtendedBlockStorage storage = to.getColumnStorage()[section];
+
+            byte[] newIds = storage.getBlockLSBArray();
+            byte[] newData = storage.getBlockMetadataArray().getData();
+            byte[] newBlockLight = storage.getBlockLightArray().getData();
+            byte[] newSkyLight = hasSkylight ? storage.getSkylightArray().getData() : null;
+
+            // new arrays are zeroed, air needs only light to be copied
+            boolean air = airUnchanged && isAir(ids, data, section);
+
+            for (int y = 0; y < 16; y++) {
+                int oldY = section << 4 | y;
+                int shift = (oldY & 1) << 2;
+
+                for (int z = 0; z < 16; z++) {
+                    int row = y << 8 | z << 4;
+                    int column = z << 7 | oldY;
+
+                    // two neighbouring x values share one nibble byte in the new layout
+                    for (int x = 0; x < 16; x += 2) {
+                        int first = x << 11 | column;
+                        int second = first + 2048;
+
+                        int newIndex = row | x;
+                        int newNibble = newIndex >> 1;
+
+                        if (!air) {
+                            int firstBlock = transformer.remapBlock(ids[first] & 255, data[first >> 1] >> shift & 15);
+                            int secondBlock = transformer.remapBlock(ids[second] & 255, data[second >> 1] >> shift & 15);
+
+                            newIds[newIndex] = (byte) (firstBlock >> 4);
+                            newIds[newIndex | 1] = (byte) (secondBlock >> 4);
+                            newData[newNibble] = (byte) (firstBlock & 15 | (secondBlock & 15) << 4);
+                        }
+
+                        newBlockLight[newNibble] = (byte) (blockLight[first >> 1] >> shift & 15 | (blockLight[second >> 1] >> shift & 15) << 4);
+
+                        if (hasSkylight) {
+                            newSkyLight[newNibble] = (byte) (skyLight[first >> 1] >> shift & 15 | (skyLight[second >> 1] >> shift & 15) << 4);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isAir(byte[] ids, byte[] data, int section) {
+        int start = section << 4;
+
+        for (int column = 0; column < 256; column++) {
+            int index = column << 7 | start;
+
+            for (int y = 0; y < 16; y++) {
+                if (ids[index + y] != 0) {
+                    return false;
+                }
+            }
+
+            // 16 blocks take 8 nibble bytes
+            for (int i = 0; i < 8; i++) {
+                if (data[(index >> 1) + i] != 0) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
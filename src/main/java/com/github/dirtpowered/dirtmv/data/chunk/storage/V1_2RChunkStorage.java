@@ -24,9 +24,11 @@ package com.github.dirtpowered.dirtmv.data.chunk.storage;
 
 import com.github.dirtpowered.dirtmv.data.chunk.Chunk;
 import com.github.dirtpowered.dirtmv.data.chunk.NibbleArray;
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
 import lombok.Data;
 
-import java.util.zip.Deflater;
+import java.util.Arrays;
+
 
 @Data
 public class V1_2RChunkStorage implements Chunk {
@@ -144,6 +146,15 @@ public class V1_2RChunkStorage implements Chunk {
     }
 
     public byte[] getCompressedData(boolean groundUp, int bitmapValue) {
+        byte[] data = getUncompressedData(groundUp, bitmapValue);
+
+        byte[] compressedChunk = CompressionService.deflate(data, 0, data.length, CompressionService.getChunkCompressionLevel());
+        compressedSize = compressedChunk.length;
+
+        return compressedChunk;
+    }
+
+    public byte[] getUncompressedData(boolean groundUp, int bitmapValue) {
         int totalSize = 0;
         int primaryBitmap = bitmapValue;
 
@@ -207,20 +218,6 @@ public class V1_2RChunkStorage implements Chunk {
             totalSize += 256;
         }
 
-        Deflater deflater = new Deflater(-1);
-
-        byte[] compressedChunk;
-
-        try {
-            deflater.setInput(data, 0, totalSize);
-            deflater.finish();
-
-            compressedChunk = new byte[totalSize];
-            compressedSize = deflater.deflate(compressedChunk);
-        } finally {
-            deflater.end();
-        }
-
-        return compressedChunk;
+        return Arrays.copyOf(data, totalSize);
     }
 }
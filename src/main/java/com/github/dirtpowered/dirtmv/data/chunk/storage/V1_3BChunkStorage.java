@@ -27,9 +27,16 @@ import com.github.dirtpowered.dirtmv.data.chunk.NibbleArray;
 import lombok.Getter;
 
 public class V1_3BChunkStorage implements Chunk {
+    @Getter
     private final byte[] blockArray;
+
+    @Getter
     private final NibbleArray blockDataArray;
+
+    @Getter
     private final NibbleArray blockLightArray;
+
+    @Getter
     private final NibbleArray skyLightArray;
 
     @Getter
@@ -39,5 +39,16 @@ public abstract class DataType<T> {
 
     public abstract T read(PacketInput packetInput) throws IOException;
 
+    /**
+     * Moves reader index past the value without decoding it. Used to measure packet size
+     * before decoding, types with expensive decoding should override it
+     *
+     * @param packetInput input
+     * @throws IOException when value is malformed
+     */
+    public void skip(PacketInput packetInput) throws IOException {
+        read(packetInput);
+    }
+
     public abstract void write(TypeHolder<T> typeHolder, PacketOutput packetOutput) throws IOException;
 }
\ No newline at end of file
@@ -20,29 +20,76 @@
  * SOFTWARE.
  */
 
+
 package com.github.dirtpowered.dirtmv.data.protocol;
 
-import com.github.dirtpowered.dirtmv.data.protocol.io.NettyOutputWrapper;
+import com.github.dirtpowered.dirtmv.data.protocol.io.NettyInputWrapper;
+import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
-import io.netty.buffer.Unpooled;
+import com.github.dirtpowered.dirtmv.data.utils.PacketUtil;
+import com.github.dirtpowered.dirtmv.data.utils.StringUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.Recycler;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+import io.netty.util.ResourceLeakTracker;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.SneakyThrows;
 
 import java.io.IOException;
+import java.util.Arrays;
 
+/**
+ * Packet content is kept in one of three forms: raw payload (decoded on first access),
+ * primitive slots with separate array for other objects, or {@link TypeHolder} array.
+ * Typed accessors like {@link #readInt(int)} work with any form without boxing slots,
+ * holders are created only when something asks for them.
+ * <p>
+ * Slot packets created by {@link #newInstance(int, TypeObject...)} are pooled and go back
+ * to the pool when {@link #release()} is called after they're written or dropped
+ */
 public class PacketData {
+    private static final Recycler<PacketData> RECYCLER = new Recycler<PacketData>() {
 
-    @Getter
-    private final int opCode;
+        @Override
+        protected PacketData newObject(Handle<PacketData> handle) {
+            PacketData packetData = new PacketData(0);
+            packetData.handle = handle;
+
+            return packetData;
+        }
+    };
+
+    private static final ResourceLeakDetector<PacketData> LEAK_DETECTOR =
+            ResourceLeakDetectorFactory.instance().newResourceLeakDetector(PacketData.class);
+
+    private static volatile boolean leakDetection;
 
     @Getter
-    private final TypeHolder[] objects;
+    private int opCode;
+
+    private TypeHolder[] objects;
+
+    // slot storage, values of primitive types are kept in slots and others in references
+    private TypeObject[] types;
+    private long[] slots;
+    private Object[] references;
+
+    // raw (not decoded) packet content, used when packet doesn't need to be translated
+    private DataType[] instructions;
+    private ByteBuf payload;
 
     @Getter
     @Setter
     private ProtocolState nettyState;
 
+    // pooled packets only
+    private Recycler.Handle<PacketData> handle;
+    private ResourceLeakTracker<PacketData> leak;
+    private boolean inUse;
+
     public PacketData(int opCode, TypeHolder... objects) {
         this.opCode = opCode;
         this.objects = objects;
@@ -54,25 +101,433 @@ public class PacketData {
         this.objects = objects;
     }
 
+    /**
+     * Creates packet with slot storage, values are set with typed accessors
+     *
+     * @param opCode Packet id
+     * @param types  Packet structure
+     */
+    public PacketData(int opCode, TypeObject[] types) {
+        this.opCode = opCode;
+        this.types = types;
+        this.slots = new long[types.length];
+        this.references = new Object[types.length];
+    }
+
+    /**
+     * Gets pooled packet with slot storage, values are set with typed accessors.
+     * Packet must not be used after it's sent or released
+     *
+     * @param opCode Packet id
+     * @param types  Packet structure
+     * @return {@link PacketData} packet
+     */
+    public static PacketData newInstance(int opCode, TypeObject... types) {
+        PacketData packetData = RECYCLER.get();
+
+        packetData.opCode = opCode;
+        packetData.types = types;
+        packetData.inUse = true;
+
+        // arrays are kept between uses
+        if (packetData.slots == null || packetData.slots.length < types.length) {
+            packetData.slots = new long[types.length];
+            packetData.references = new Object[types.length];
+        }
+
+        if (leakDetection) {
+            packetData.leak = LEAK_DETECTOR.track(packetData);
+        }
+
+        return packetData;
+    }
+
+    /**
+     * Enables tracking of pooled packets which weren't released. Leaks are reported
+     * by netty leak detector, so its level also applies
+     */
+    public static void setLeakDetection(boolean enabled) {
+        leakDetection = enabled;
+    }
+
+    /**
+     * Decodes packet content into slot storage
+     *
+     * @param opCode Packet id
+     * @param parts  Packet structure
+     * @param input  Network input
+     * @return {@link PacketData} packet
+     * @throws IOException when packet content is malformed
+     */
+    public static PacketData decode(int opCode, DataType[] parts, PacketInput input) throws IOException {
+        PacketData packetData = new PacketData(opCode);
+        packetData.decodeSlots(parts, input);
+
+        return packetData;
+    }
+
+    /**
+     * Creates raw packet. Payload is decoded only when something reads packet content
+     *
+     * @param opCode       Packet id
+     * @param instructions Packet structure used to decode payload
+     * @param payload      Packet content (without packet id), ownership is transferred to packet
+     */
+    public PacketData(int opCode, DataType[] instructions, ByteBuf payload) {
+        this.opCode = opCode;
+        this.instructions = instructions;
+        this.payload = payload;
+    }
+
+    public TypeHolder[] getObjects() {
+        if (payload != null) {
+            decodePayload();
+        }
+
+        if (types != null) {
+            createHolders();
+        }
+
+        return objects;
+    }
+
+    public boolean isRaw() {
+        return payload != null;
+    }
+
     public TypeHolder read(int index) {
         try {
-            return objects[index];
+            return getObjects()[index];
         } catch (ArrayIndexOutOfBoundsException e) {
             return null;
         }
     }
 
     public <T> T read(TypeObject<T> type, int index) {
+        if (payload != null) {
+            decodePayload();
+        }
+
+        if (types != null) {
+            return type.getType().cast(getSlotObject(index));
+        }
+
         return type.getType().cast(objects[index].getObject());
     }
 
-    public PacketOutput toMessage() throws IOException {
-        PacketOutput packetOutput = new NettyOutputWrapper(Unpooled.buffer());
+    public int readInt(int index) {
+        return (int) readSlot(index);
+    }
+
+    public short readShort(int index) {
+        return (short) readSlot(index);
+    }
+
+    public byte readByte(int index) {
+        return (byte) readSlot(index);
+    }
+
+    public long readLong(int index) {
+        return readSlot(index);
+    }
+
+    public float readFloat(int index) {
+        return Float.intBitsToFloat((int) readSlot(index));
+    }
+
+    public double readDouble(int index) {
+        return Double.longBitsToDouble(readSlot(index));
+    }
+
+    public boolean readBoolean(int index) {
+        return readSlot(index) != 0;
+    }
+
+    public void writeInt(int index, int value) {
+        writeSlot(index, value);
+    }
+
+    public void writeShort(int index, short value) {
+        writeSlot(index, value);
+    }
+
+    public void writeByte(int index, byte value) {
+        writeSlot(index, value);
+    }
+
+    public void writeLong(int index, long value) {
+        writeSlot(index, value);
+    }
+
+    public void writeFloat(int index, float value) {
+        writeSlot(index, Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(int index, double value) {
+        writeSlot(index, Double.doubleToRawLongBits(value));
+    }
+
+    public void writeBoolean(int index, boolean value) {
+        writeSlot(index, value ? 1 : 0);
+    }
+
+    /**
+     * Sets value of non-primitive field
+     */
+    public void writeObject(int index, Object value) {
+        if (payload != null) {
+            decodePayload();
+        }
+
+        if (types != null) {
+            references[index] = value;
+        } else {
+            // holder can be shared with other packet
+            objects[index] = new TypeHolder(objects[index].getType(), value);
+        }
+    }
+
+    /**
+     * Slot value of primitive field. Value read from packet with holders is converted,
+     * floating point values are raw bits
+     */
+    private long readSlot(int index) {
+        if (payload != null) {
+            decodePayload();
+        }
+
+        if (types != null) {
+            return slots[index];
+        }
+
+        TypeHolder holder = objects[index];
+        return getPrimitiveType(holder.getType()).unbox(holder.getObject());
+    }
+
+    private void writeSlot(int index, long value) {
+        if (payload != null) {
+            decodePayload();
+        }
+
+        if (types != null) {
+            slots[index] = value;
+            return;
+        }
+
+        // holder can be shared with other packet
+        TypeObject type = objects[index].getType();
+        objects[index] = new TypeHolder(type, getPrimitiveType(type).box(value));
+    }
+
+    private PrimitiveDataType getPrimitiveType(TypeObject type) {
+        PrimitiveDataType primitiveType = type.getPrimitiveType();
+
+        if (primitiveType == null) {
+            throw new IllegalArgumentException("Field type " + type.getType().getSimpleName() + " is not primitive");
+        }
+
+        return primitiveType;
+    }
+
+    private Object getSlotObject(int index) {
+        PrimitiveDataType primitiveType = types[index].getPrimitiveType();
+
+        return primitiveType == null ? references[index] : primitiveType.box(slots[index]);
+    }
+
+    private void createHolders() {
+        TypeHolder[] typeHolders = new TypeHolder[types.length];
+
+        for (int i = 0; i < types.length; i++) {
+            typeHolders[i] = new TypeHolder(types[i], getSlotObject(i));
+        }
+
+        objects = typeHolders;
+
+        // holders can be modified, slots would be outdated
+        types = null;
+        slots = null;
+        references = null;
+    }
+
+    private void decodeSlots(DataType[] parts, PacketInput input) throws IOException {
+        types = new TypeObject[parts.length];
+        slots = new long[parts.length];
+        references = new Object[parts.length];
+
+        for (int i = 0; i < parts.length; i++) {
+            DataType dataType = parts[i];
+            types[i] = dataType.getType();
+
+            if (dataType instanceof PrimitiveDataType) {
+                slots[i] = ((PrimitiveDataType) dataType).readSlot(input);
+            } else {
+                references[i] = dataType.read(input);
+            }
+        }
+    }
+
+    /**
+     * Creates copy of this packet with different packet id. Raw payload is moved to the new packet
+     *
+     * @param opCode New packet id
+     * @return {@link PacketData} packet
+     */
+    public PacketData withOpCode(int opCode) {
+        if (types != null) {
+            PacketData packetData = new PacketData(opCode);
+
+            // copied, this packet can go back to pool
+            packetData.types = types;
+            packetData.slots = Arrays.copyOf(slots, types.length);
+            packetData.references = Arrays.copyOf(references, types.length);
+            return packetData;
+        }
+
+        if (payload == null) {
+            return PacketUtil.createPacket(opCode, objects);
+        }
+
+        PacketData packetData = new PacketData(opCode, instructions, payload);
+
+        this.instructions = null;
+        this.payload = null;
+        return packetData;
+    }
+
+    /**
+     * Creates copy which can be sent and released independently of this packet. Raw payload is
+     * shared, field objects (arrays, items) are not copied
+     *
+     * @return {@link PacketData} packet, never pooled
+     */
+    public PacketData copy() {
+        PacketData packetData;
+
+        if (payload != null) {
+            packetData = new PacketData(opCode, instructions, payload.retainedDuplicate());
+        } else if (types != null) {
+            packetData = new PacketData(opCode);
+
+            packetData.types = types;
+            packetData.slots = Arrays.copyOf(slots, types.length);
+            packetData.references = Arrays.copyOf(references, types.length);
+        } else {
+            TypeHolder[] typeHolders = new TypeHolder[objects.length];
+
+            // holders can be modified by translators
+            for (int i = 0; i < objects.length; i++) {
+                typeHolders[i] = new TypeHolder(objects[i].getType(), objects[i].getObject());
+            }
+
+            packetData = new PacketData(opCode, typeHolders);
+        }
+
+        packetData.nettyState = nettyState;
+        return packetData;
+    }
+
+    /**
+     * Releases raw payload and returns pooled packet to the pool. Needs to be called
+     * when packet is written or dropped without being sent
+     */
+    public void release() {
+        releasePayload();
+
+        if (handle == null) {
+            return;
+        }
+
+        if (inUse) {
+            recycle();
+        } else if (leakDetection) {
+            // packet was sent or forwarded by translator without copy
+            throw new IllegalStateException("Pooled packet " + StringUtils.intToHexStr(opCode) + " released twice");
+        }
+    }
+
+    private void recycle() {
+        inUse = false;
+
+        if (leak != null) {
+            leak.close(this);
+            leak = null;
+        }
+
+        if (slots != null) {
+            Arrays.fill(slots, 0);
+            Arrays.fill(references, null);
+        }
+
+        objects = null;
+        types = null;
+        nettyState = null;
+
+        handle.recycle(this);
+    }
+
+    private void releasePayload() {
+        if (payload != null) {
+            payload.release();
+
+            payload = null;
+            instructions = null;
+        }
+    }
+
+    @SneakyThrows
+    private void decodePayload() {
+        try {
+            decodeSlots(instructions, new NettyInputWrapper(payload));
+        } finally {
+            releasePayload();
+        }
+    }
+
+    /**
+     * Size of raw payload, 0 if packet is not raw
+     */
+    public int getPayloadSize() {
+        return payload == null ? 0 : payload.readableBytes();
+    }
+
+    /**
+     * Writes packet content (without packet id)
+     *
+     * @param packetOutput output
+     * @throws IOException when packet content is malformed
+     */
+    public void write(PacketOutput packetOutput) throws IOException {
+        if (payload != null) {
+            try {
+                packetOutput.getBuffer().writeBytes(payload);
+            } finally {
+                releasePayload();
+            }
+
+            return;
+        }
+
+        if (types != null) {
+            writeSlots(packetOutput);
+            return;
+        }
 
         for (TypeHolder typeHolder : objects) {
             typeHolder.getType().getTypeHandler().handle(typeHolder, packetOutput);
         }
+    }
 
-        return packetOutput;
+    private void writeSlots(PacketOutput packetOutput) throws IOException {
+        for (int i = 0; i < types.length; i++) {
+            TypeObject type = types[i];
+            PrimitiveDataType primitiveType = type.getPrimitiveType();
+
+            if (primitiveType != null) {
+                primitiveType.writeSlot(slots[i], packetOutput);
+            } else {
+                type.getTypeHandler().handle(new TypeHolder(type, references[i]), packetOutput);
+            }
+        }
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.data.protocol;
+
+import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
+import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
+
+import java.io.IOException;
+
+/**
+ * Numeric or boolean data type. Values of such types are kept in primitive slots of
+ * {@link PacketData} without boxing. Floating point values are stored as raw bits
+ */
+public abstract class PrimitiveDataType<T> extends DataType<T> {
+
+    protected PrimitiveDataType(TypeObject<T> type) {
+        super(type);
+
+        type.setPrimitiveType(this);
+    }
+
+    public abstract long readSlot(PacketInput packetInput) throws IOException;
+
+    public abstract void writeSlot(long value, PacketOutput packetOutput) throws IOException;
+
+    /**
+     * Converts slot value to object stored in {@link TypeHolder}
+     */
+    public abstract T box(long value);
+
+    /**
+     * Converts object stored in {@link TypeHolder} to slot value. Any number is accepted
+     */
+    public abstract long unbox(Object value);
+
+    @Override
+    public T read(PacketInput packetInput) throws IOException {
+        return box(readSlot(packetInput));
+    }
+
+    @Override
+    public void write(TypeHolder<T> typeHolder, PacketOutput packetOutput) throws IOException {
+        writeSlot(unbox(typeHolder.getObject()), packetOutput);
+    }
+}
@@ -22,12 +22,25 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
-@AllArgsConstructor
 public class TypeObject<T> {
     private Class<T> type;
     private TypeHandler typeHandler;
+
+    // set by data type, null if values of this type can't be stored in primitive slots
+    @Setter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private PrimitiveDataType<T> primitiveType;
+
+    public TypeObject(Class<T> type, TypeHandler typeHandler) {
+        this.type = type;
+        this.typeHandler = typeHandler;
+    }
 }
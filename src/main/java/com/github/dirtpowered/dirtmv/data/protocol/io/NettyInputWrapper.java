@@ -115,6 +115,11 @@ public class NettyInputWrapper implements PacketInput {
         return this.readBytes(buf.readableBytes());
     }
 
+    @Override
+    public void skipBytes(int length) {
+        buf.skipBytes(length);
+    }
+
     @Override
     public ByteBuf getBuffer() {
         return buf;
@@ -52,5 +52,7 @@ public interface PacketInput {
 
     byte[] readableBytes();
 
+    void skipBytes(int length);
+
     ByteBuf getBuffer();
 }
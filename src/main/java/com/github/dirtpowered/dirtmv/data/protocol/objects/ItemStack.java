@@ -22,15 +22,69 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.objects;
 
-import lombok.AllArgsConstructor;
+import com.github.dirtpowered.dirtmv.data.utils.NBTUtils;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
 
 @Data
-@AllArgsConstructor
 public class ItemStack {
     private int itemId;
     private int amount;
     private int data;
     private CompoundBinaryTag compoundTag;
+
+    // gzip compressed tag as received from network, null once the tag is replaced
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] rawTag;
+
+    public ItemStack(int itemId, int amount, int data, CompoundBinaryTag compoundTag) {
+        this.itemId = itemId;
+        this.amount = amount;
+        this.data = data;
+        this.compoundTag = compoundTag;
+    }
+
+    /**
+     * Creates item stack with compressed tag which is parsed on first access
+     *
+     * @param rawTag Gzip compressed tag
+     */
+    public static ItemStack withRawTag(int itemId, int amount, int data, byte[] rawTag) {
+        ItemStack itemStack = new ItemStack(itemId, amount, data, null);
+        itemStack.rawTag = rawTag;
+
+        return itemStack;
+    }
+
+    public CompoundBinaryTag getCompoundTag() {
+        if (compoundTag == null && rawTag != null) {
+            compoundTag = NBTUtils.readNBT(rawTag);
+
+            if (compoundTag == null) {
+                // malformed tag is dropped, same as when it was parsed while reading
+                rawTag = null;
+            }
+        }
+
+        return compoundTag;
+    }
+
+    /**
+     * Copies tag of other item without parsing it
+     */
+    public void copyTag(ItemStack itemStack) {
+        this.compoundTag = itemStack.compoundTag;
+        this.rawTag = itemStack.rawTag;
+    }
+
+    public void setCompoundTag(CompoundBinaryTag compoundTag) {
+        this.compoundTag = compoundTag;
+        this.rawTag = null;
+    }
 }
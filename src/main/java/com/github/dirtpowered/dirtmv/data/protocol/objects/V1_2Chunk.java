@@ -23,9 +23,19 @@
 package com.github.dirtpowered.dirtmv.data.protocol.objects;
 
 import com.github.dirtpowered.dirtmv.data.chunk.storage.V1_2RChunkStorage;
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.SneakyThrows;
 
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+
+/**
+ * Chunk column holding compressed and/or decompressed data. The missing form is
+ * only produced when something actually asks for it, so a chunk passing through
+ * several protocols is inflated and deflated at most once
+ */
 @Data
 @AllArgsConstructor
 public class V1_2Chunk {
@@ -38,4 +48,60 @@ public class V1_2Chunk {
     private byte[] data;
     private byte[] uncompressedData;
     private V1_2RChunkStorage storage;
+
+    public byte[] getData() {
+        if (data == null && uncompressedData != null) {
+            data = CompressionService.deflate(uncompressedData, 0, uncompressedData.length,
+                    CompressionService.getChunkCompressionLevel());
+
+            compressedDataSize = data.length;
+        }
+
+        return data;
+    }
+
+    public int getCompressedDataSize() {
+        getData();
+
+        return compressedDataSize;
+    }
+
+    @SneakyThrows
+    public byte[] getUncompressedData() {
+        if (uncompressedData == null && data != null) {
+            byte[] buf = new byte[getDecompressedSize()];
+
+            try {
+                CompressionService.inflate(data, 0, compressedDataSize, buf);
+            } catch (DataFormatException e) {
+                throw new IOException("Bad compressed data format");
+            }
+
+            uncompressedData = buf;
+        }
+
+        return uncompressedData;
+    }
+
+    /**
+     * Replaces decompressed data, compressed form will be rebuilt on write
+     */
+    public void setUncompressedData(byte[] uncompressedData) {
+        this.uncompressedData = uncompressedData;
+        this.data = null;
+    }
+
+    public boolean hasCompressedData() {
+        return data != null;
+    }
+
+    private int getDecompressedSize() {
+        int size = 12288 * Integer.bitCount(primaryBitmap & 65535);
+
+        if (groundUp) {
+            size += 256;
+        }
+
+        return size;
+    }
 }
@@ -22,9 +22,16 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.objects;
 
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.zip.DataFormatException;
+
+/**
+ * Beta chunk holding compressed and/or decompressed data, the missing form is
+ * only produced on demand
+ */
 @Data
 @AllArgsConstructor
 public class V1_3BChunk {
@@ -35,4 +42,41 @@ public class V1_3BChunk {
     private int ySize;
     private int zSize;
     private byte[] chunk;
+    private byte[] compressedChunk;
+
+    public byte[] getChunk() {
+        if (chunk == null && compressedChunk != null) {
+            byte[] buf = new byte[xSize * ySize * zSize * 5 / 2];
+
+            try {
+                CompressionService.inflate(compressedChunk, 0, compressedChunk.length, buf);
+            } catch (DataFormatException ignored) {
+            }
+
+            chunk = buf;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Replaces decompressed data, compressed form will be rebuilt on write
+     */
+    public void setChunk(byte[] chunk) {
+        this.chunk = chunk;
+        this.compressedChunk = null;
+    }
+
+    public boolean hasCompressedData() {
+        return compressedChunk != null;
+    }
+
+    public byte[] getCompressedChunk() {
+        if (compressedChunk == null && chunk != null) {
+            compressedChunk = CompressionService.deflate(chunk, 0, chunk.length,
+                    CompressionService.getBetaChunkCompressionLevel());
+        }
+
+        return compressedChunk;
+    }
 }
@@ -22,26 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class BooleanDataType extends DataType<Boolean> {
+public class BooleanDataType extends PrimitiveDataType<Boolean> {
 
     public BooleanDataType() {
         super(Type.BOOLEAN);
     }
 
     @Override
-    public Boolean read(PacketInput packetInput) {
-        return packetInput.readBoolean();
+    public long readSlot(PacketInput packetInput) {
+        return packetInput.readBoolean() ? 1 : 0;
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        packetOutput.writeBoolean((Boolean) typeHolder.getObject());
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeBoolean(value != 0);
+    }
+
+    @Override
+    public Boolean box(long value) {
+        return value != 0;
     }
-}
 
+    @Override
+    public long unbox(Object value) {
+        return (Boolean) value ? 1 : 0;
+    }
+}
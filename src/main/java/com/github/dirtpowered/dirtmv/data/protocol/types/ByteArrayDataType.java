@@ -69,6 +69,27 @@ public class ByteArrayDataType extends DataType<byte[]> {
         return bytes;
     }
 
+    @Override
+    public void skip(PacketInput packetInput) {
+        int size = 0;
+
+        if (getType() == Type.BYTE_BYTE_ARRAY) {
+            size = packetInput.readByte() & 255;
+        } else if (getType() == Type.SHORT_BYTE_ARRAY) {
+            size = packetInput.readShort();
+
+            Preconditions.checkArgument(size < 32767, "Payload too big");
+        } else if (getType() == Type.UNSIGNED_SHORT_BYTE_ARRAY) {
+            size = packetInput.readUnsignedShort();
+        } else if (getType() == Type.INT_BYTE_ARRAY) {
+            size = packetInput.readInt();
+        } else if (getType() == Type.VAR_INT_BYTE_ARRAY) {
+            size = packetInput.readVarInt();
+        }
+
+        packetInput.skipBytes(size);
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput buffer) throws IOException {
         byte[] byteArray = (byte[]) typeHolder.getObject();
@@ -22,31 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class ByteDataType extends DataType<Byte> {
+public class ByteDataType extends PrimitiveDataType<Byte> {
 
     public ByteDataType() {
         super(Type.BYTE);
     }
 
     @Override
-    public Byte read(PacketInput packetInput) {
+    public long readSlot(PacketInput packetInput) {
         return packetInput.readByte();
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        if (typeHolder.getObject() instanceof Integer) {
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeByte((byte) value);
+    }
 
-            packetOutput.writeByte((((Integer) typeHolder.getObject()).byteValue()));
-            return;
-        }
+    @Override
+    public Byte box(long value) {
+        return (byte) value;
+    }
 
-        packetOutput.writeByte((Byte) typeHolder.getObject());
+    @Override
+    public long unbox(Object value) {
+        return ((Number) value).byteValue();
     }
 }
@@ -41,6 +41,11 @@ public class CompoundTagDataType extends DataType<CompoundBinaryTag> {
         return NBTUtils.readNBT(packetInput);
     }
 
+    @Override
+    public void skip(PacketInput packetInput) {
+        NBTUtils.skipNBT(packetInput);
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         CompoundBinaryTag compoundTag = (CompoundBinaryTag) typeHolder.getObject();
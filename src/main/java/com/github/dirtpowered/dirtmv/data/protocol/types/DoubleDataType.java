@@ -22,25 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class DoubleDataType extends DataType<Double> {
+public class DoubleDataType extends PrimitiveDataType<Double> {
 
     public DoubleDataType() {
         super(Type.DOUBLE);
     }
 
     @Override
-    public Double read(PacketInput packetInput) {
-        return packetInput.readDouble();
+    public long readSlot(PacketInput packetInput) {
+        return Double.doubleToRawLongBits(packetInput.readDouble());
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        packetOutput.writeDouble((Double) typeHolder.getObject());
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeDouble(Double.longBitsToDouble(value));
+    }
+
+    @Override
+    public Double box(long value) {
+        return Double.longBitsToDouble(value);
+    }
+
+    @Override
+    public long unbox(Object value) {
+        return Double.doubleToRawLongBits(((Number) value).doubleValue());
     }
 }
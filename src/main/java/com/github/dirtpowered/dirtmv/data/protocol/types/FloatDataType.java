@@ -22,25 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class FloatDataType extends DataType<Float> {
+public class FloatDataType extends PrimitiveDataType<Float> {
 
     public FloatDataType() {
         super(Type.FLOAT);
     }
 
     @Override
-    public Float read(PacketInput packetInput) {
-        return packetInput.readFloat();
+    public long readSlot(PacketInput packetInput) {
+        return Float.floatToRawIntBits(packetInput.readFloat());
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        packetOutput.writeFloat((Float) typeHolder.getObject());
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeFloat(Float.intBitsToFloat((int) value));
+    }
+
+    @Override
+    public Float box(long value) {
+        return Float.intBitsToFloat((int) value);
+    }
+
+    @Override
+    public long unbox(Object value) {
+        return Float.floatToRawIntBits(((Number) value).floatValue());
     }
 }
@@ -55,6 +55,15 @@ public class ItemArrayDataType extends DataType<ItemStack[]> {
         return objArray;
     }
 
+    @Override
+    public void skip(PacketInput packetInput) throws IOException {
+        short length = packetInput.readShort();
+
+        for (short i = 0; i < length; i++) {
+            childInstruction.skip(packetInput);
+        }
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) throws IOException {
         ItemStack[] objArray = (ItemStack[]) typeHolder.getObject();
@@ -22,31 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class LongDataType extends DataType<Long> {
+public class LongDataType extends PrimitiveDataType<Long> {
 
     public LongDataType() {
         super(Type.LONG);
     }
 
     @Override
-    public Long read(PacketInput packetInput) {
+    public long readSlot(PacketInput packetInput) {
         return packetInput.readLong();
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        if (typeHolder.getObject() instanceof Integer) {
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeLong(value);
+    }
 
-            packetOutput.writeLong((((Integer) typeHolder.getObject()).longValue()));
-            return;
-        }
+    @Override
+    public Long box(long value) {
+        return value;
+    }
 
-        packetOutput.writeLong((Long) typeHolder.getObject());
+    @Override
+    public long unbox(Object value) {
+        return ((Number) value).longValue();
     }
 }
\ No newline at end of file
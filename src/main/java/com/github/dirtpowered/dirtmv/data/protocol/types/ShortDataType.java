@@ -22,31 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class ShortDataType extends DataType<Short> {
+public class ShortDataType extends PrimitiveDataType<Short> {
 
     public ShortDataType() {
         super(Type.SHORT);
     }
 
     @Override
-    public Short read(PacketInput packetInput) {
+    public long readSlot(PacketInput packetInput) {
         return packetInput.readShort();
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        if (typeHolder.getObject() instanceof Integer) {
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeShort((short) value);
+    }
 
-            packetOutput.writeShort(((Integer) typeHolder.getObject()));
-            return;
-        }
+    @Override
+    public Short box(long value) {
+        return (short) value;
+    }
 
-        packetOutput.writeShort((Short) typeHolder.getObject());
+    @Override
+    public long unbox(Object value) {
+        return ((Number) value).shortValue();
     }
 }
@@ -27,7 +27,9 @@ import com.github.dirtpowered.dirtmv.data.protocol.Type;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
+import com.github.dirtpowered.dirtmv.data.utils.StringPool;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 
 public class StringDataType extends DataType<String> {
 
@@ -40,23 +42,42 @@ public class StringDataType extends DataType<String> {
         short stringLength = packetInput.readShort();
         Preconditions.checkArgument(stringLength < 32767, "String too big");
 
-        StringBuilder sb = new StringBuilder();
-
-        for (int i = 0; i < stringLength; i++) {
-            String s = String.valueOf(packetInput.readChar());
-            sb.append(s);
+        if (stringLength <= 0) {
+            return "";
         }
 
-        return sb.toString();
+        ByteBuf buf = packetInput.getBuffer();
+        String string = StringPool.readUcs2(buf, buf.readerIndex(), stringLength);
+
+        buf.skipBytes(stringLength << 1);
+        return string;
+    }
+
+    @Override
+    public void skip(PacketInput packetInput) {
+        short stringLength = packetInput.readShort();
+        Preconditions.checkArgument(stringLength < 32767, "String too big");
+
+        if (stringLength > 0) {
+            packetInput.skipBytes(stringLength * 2);
+        }
     }
 
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         String string = (String) typeHolder.getObject();
-        packetOutput.writeShort(string.length());
+        int length = string.length();
 
-        for (char c : string.toCharArray()) {
-            packetOutput.writeChar(c);
+        ByteBuf buf = packetOutput.getBuffer();
+        buf.ensureWritable(2 + (length << 1));
+
+        int writerIndex = buf.writerIndex();
+        buf.setShort(writerIndex, length);
+
+        for (int i = 0; i < length; i++) {
+            buf.setChar(writerIndex + 2 + (i << 1), string.charAt(i));
         }
+
+        buf.writerIndex(writerIndex + 2 + (length << 1));
     }
 }
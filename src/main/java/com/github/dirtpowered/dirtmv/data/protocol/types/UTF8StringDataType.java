@@ -27,7 +27,11 @@ import com.github.dirtpowered.dirtmv.data.protocol.Type;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
+import com.github.dirtpowered.dirtmv.data.utils.StringPool;
+import com.github.dirtpowered.dirtmv.data.utils.StringUtils;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import java.nio.charset.StandardCharsets;
 
@@ -42,17 +46,35 @@ public class UTF8StringDataType extends DataType<String> {
         int stringLength = packetInput.readShort();
         Preconditions.checkArgument(stringLength < 32767, "String too big");
 
-        byte[] bytes = packetInput.readBytes(stringLength);
+        ByteBuf buf = packetInput.getBuffer();
+        String string = StringPool.readUtf8(buf, buf.readerIndex(), stringLength);
 
-        return new String(bytes, StandardCharsets.UTF_8);
+        buf.skipBytes(stringLength);
+        return string;
+    }
+
+    @Override
+    public void skip(PacketInput packetInput) {
+        int stringLength = packetInput.readShort();
+        Preconditions.checkArgument(stringLength < 32767, "String too big");
+
+        packetInput.skipBytes(stringLength);
     }
 
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         String string = (String) typeHolder.getObject();
 
-        byte[] message = string.getBytes(StandardCharsets.UTF_8);
-        packetOutput.writeShort(message.length);
-        packetOutput.writeBytes(message);
+        if (StringUtils.hasUnpairedSurrogate(string)) {
+            byte[] message = string.getBytes(StandardCharsets.UTF_8);
+            packetOutput.writeShort(message.length);
+            packetOutput.writeBytes(message);
+            return;
+        }
+
+        ByteBuf buf = packetOutput.getBuffer();
+
+        packetOutput.writeShort(ByteBufUtil.utf8Bytes(string));
+        ByteBufUtil.writeUtf8(buf, string);
     }
 }
@@ -22,31 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class UnsignedByteDataType extends DataType<Short> {
+public class UnsignedByteDataType extends PrimitiveDataType<Short> {
 
     public UnsignedByteDataType() {
         super(Type.UNSIGNED_BYTE);
     }
 
     @Override
-    public Short read(PacketInput packetInput) {
+    public long readSlot(PacketInput packetInput) {
         return packetInput.readUnsignedByte();
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        if (typeHolder.getObject() instanceof Integer) {
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeByte((int) value);
+    }
 
-            packetOutput.writeByte((((Integer) typeHolder.getObject()).byteValue()));
-            return;
-        }
+    @Override
+    public Short box(long value) {
+        return (short) value;
+    }
 
-        packetOutput.writeByte((Short) typeHolder.getObject());
+    @Override
+    public long unbox(Object value) {
+        return ((Number) value).shortValue();
     }
 }
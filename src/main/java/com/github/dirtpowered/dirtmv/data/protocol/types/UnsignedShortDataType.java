@@ -22,25 +22,34 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types;
 
-import com.github.dirtpowered.dirtmv.data.protocol.DataType;
+import com.github.dirtpowered.dirtmv.data.protocol.PrimitiveDataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
-import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 
-public class UnsignedShortDataType extends DataType<Integer> {
+public class UnsignedShortDataType extends PrimitiveDataType<Integer> {
 
     public UnsignedShortDataType() {
         super(Type.UNSIGNED_SHORT);
     }
 
     @Override
-    public Integer read(PacketInput packetInput) {
+    public long readSlot(PacketInput packetInput) {
         return packetInput.readUnsignedShort();
     }
 
     @Override
-    public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
-        packetOutput.writeShort((Integer) typeHolder.getObject());
+    public void writeSlot(long value, PacketOutput packetOutput) {
+        packetOutput.writeShort((int) value);
+    }
+
+    @Override
+    public Integer box(long value) {
+        return (int) value;
+    }
+
+    @Override
+    public long unbox(Object value) {
+        return ((Number) value).intValue();
     }
 }
@@ -30,7 +30,6 @@ import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.ItemStack;
 import com.github.dirtpowered.dirtmv.data.utils.NBTUtils;
 import com.github.dirtpowered.dirtmv.network.versions.Release22To17.item.LegacyItemList;
-import net.kyori.adventure.nbt.CompoundBinaryTag;
 
 public class V1_0RItemDataType extends DataType<ItemStack> {
 
@@ -46,17 +45,30 @@ public class V1_0RItemDataType extends DataType<ItemStack> {
             int amount = packetInput.readByte();
             int data = packetInput.readShort();
 
-            CompoundBinaryTag compoundTag = null;
+            byte[] rawTag = null;
 
             if (LegacyItemList.isEnchantable(itemId))
-                compoundTag = NBTUtils.readNBT(packetInput);
+                rawTag = NBTUtils.readRawNBT(packetInput);
 
-            return new ItemStack(itemId, amount, data, compoundTag);
+            return ItemStack.withRawTag(itemId, amount, data, rawTag);
         }
 
         return null;
     }
 
+    @Override
+    public void skip(PacketInput packetInput) {
+        int itemId = packetInput.readShort();
+
+        if (itemId >= 0) {
+            // amount and data
+            packetInput.skipBytes(3);
+
+            if (LegacyItemList.isEnchantable(itemId))
+                NBTUtils.skipNBT(packetInput);
+        }
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         ItemStack itemStack = (ItemStack) typeHolder.getObject();
@@ -69,7 +81,7 @@ public class V1_0RItemDataType extends DataType<ItemStack> {
             packetOutput.writeShort(itemStack.getData());
 
             if (LegacyItemList.isEnchantable(itemStack.getItemId())) {
-                NBTUtils.writeNBT(itemStack.getCompoundTag(), packetOutput);
+                NBTUtils.writeNBT(itemStack, packetOutput);
             }
         }
     }
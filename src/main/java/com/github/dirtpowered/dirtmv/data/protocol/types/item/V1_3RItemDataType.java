@@ -29,7 +29,6 @@ import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.ItemStack;
 import com.github.dirtpowered.dirtmv.data.utils.NBTUtils;
-import net.kyori.adventure.nbt.CompoundBinaryTag;
 
 public class V1_3RItemDataType extends DataType<ItemStack> {
 
@@ -45,13 +44,25 @@ public class V1_3RItemDataType extends DataType<ItemStack> {
             int amount = packetInput.readByte();
             int data = packetInput.readShort();
 
-            CompoundBinaryTag compoundTag = NBTUtils.readNBT(packetInput);
-            return new ItemStack(itemId, amount, data, compoundTag);
+            // tag is parsed only when a translator needs it
+            return ItemStack.withRawTag(itemId, amount, data, NBTUtils.readRawNBT(packetInput));
         }
 
         return null;
     }
 
+    @Override
+    public void skip(PacketInput packetInput) {
+        int itemId = packetInput.readShort();
+
+        if (itemId >= 0) {
+            // amount and data
+            packetInput.skipBytes(3);
+
+            NBTUtils.skipNBT(packetInput);
+        }
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         ItemStack itemStack = (ItemStack) typeHolder.getObject();
@@ -63,7 +74,7 @@ public class V1_3RItemDataType extends DataType<ItemStack> {
             packetOutput.writeByte(itemStack.getAmount());
             packetOutput.writeShort(itemStack.getData());
 
-            NBTUtils.writeNBT(itemStack.getCompoundTag(), packetOutput);
+            NBTUtils.writeNBT(itemStack, packetOutput);
         }
     }
 }
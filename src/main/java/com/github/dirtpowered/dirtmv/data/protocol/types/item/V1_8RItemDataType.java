@@ -63,7 +63,7 @@ public class V1_8RItemDataType extends DataType<ItemStack> {
             packetOutput.writeByte(itemStack.getAmount());
             packetOutput.writeShort(itemStack.getData());
 
-            NBTUtils.writeNBTUncompressed(itemStack.getCompoundTag(), packetOutput);
+            NBTUtils.writeNBTUncompressed(itemStack, packetOutput);
         }
     }
 }
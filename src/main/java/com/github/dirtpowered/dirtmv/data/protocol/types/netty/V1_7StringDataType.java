@@ -27,6 +27,10 @@ import com.github.dirtpowered.dirtmv.data.protocol.Type;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
+import com.github.dirtpowered.dirtmv.data.utils.StringPool;
+import com.github.dirtpowered.dirtmv.data.utils.StringUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -41,15 +45,26 @@ public class V1_7StringDataType extends DataType<String> {
     public String read(PacketInput packetInput) {
         int len = packetInput.readVarInt();
 
-        return new String(packetInput.readBytes(len), StandardCharsets.UTF_8);
+        ByteBuf buf = packetInput.getBuffer();
+        String s = StringPool.readUtf8(buf, buf.readerIndex(), len);
+
+        buf.skipBytes(len);
+        return s;
     }
 
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) throws IOException {
         String s = (String) typeHolder.getObject();
-        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
 
-        packetOutput.writeVarInt(bytes.length);
-        packetOutput.writeBytes(bytes);
+        if (StringUtils.hasUnpairedSurrogate(s)) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+            packetOutput.writeVarInt(bytes.length);
+            packetOutput.writeBytes(bytes);
+            return;
+        }
+
+        packetOutput.writeVarInt(ByteBufUtil.utf8Bytes(s));
+        ByteBufUtil.writeUtf8(packetOutput.getBuffer(), s);
     }
 }
\ No newline at end of file
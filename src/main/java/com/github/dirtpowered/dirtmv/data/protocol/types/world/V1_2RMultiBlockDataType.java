@@ -44,6 +44,14 @@ public class V1_2RMultiBlockDataType extends DataType<V1_2MultiBlockArray> {
         return new V1_2MultiBlockArray(recordCount, dataSize, data);
     }
 
+    @Override
+    public void skip(PacketInput packetInput) {
+        packetInput.readShort();
+
+        int dataSize = packetInput.readInt();
+        packetInput.skipBytes(dataSize);
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         V1_2MultiBlockArray multiBlockArray = (V1_2MultiBlockArray) typeHolder.getObject();
@@ -50,6 +50,14 @@ public class V1_3BMultiBlockDataType extends DataType<V1_3BMultiBlockArray> {
         return new V1_3BMultiBlockArray(size, coordsArray, typeArray, metadataArray);
     }
 
+    @Override
+    public void skip(PacketInput packetInput) {
+        int size = packetInput.readShort() & '\uffff';
+
+        // coords, types and metadata
+        packetInput.skipBytes(size * 4);
+    }
+
     @Override
     public void write(TypeHolder typeHolder, PacketOutput packetOutput) {
         V1_3BMultiBlockArray multiBlockArray = (V1_3BMultiBlockArray) typeHolder.getObject();
@@ -31,8 +31,6 @@ import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.V1_2Chunk;
 
 import java.io.IOException;
-import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
 
 public class V1_2_3RChunkDataType extends DataType<V1_2Chunk> {
 
@@ -56,31 +54,20 @@ public class V1_2_3RChunkDataType extends DataType<V1_2Chunk> {
 
         byte[] chunk = packetInput.readBytes(compressedDataSize);
 
-        int i = 0;
-        for (int j = 0; j < 16; j++) {
-            i += primaryBitmap >> j & 1;
-        }
-
-        int size = 12288 * i;
-
-        if (groundUp) {
-            size += 256;
-        }
+        // inflated lazily, only when a translator needs the block data
+        return new V1_2Chunk(chunkX, chunkZ, groundUp, primaryBitmap, additionalBitmap, compressedDataSize, chunk, null, null);
+    }
 
-        byte[] buf = new byte[size];
+    @Override
+    public void skip(PacketInput packetInput) {
+        // chunk coords, ground-up flag and bitmaps
+        packetInput.skipBytes(13);
 
-        Inflater inflater = new Inflater();
-        inflater.setInput(chunk, 0, compressedDataSize);
+        int compressedDataSize = packetInput.readInt();
 
-        try {
-            inflater.inflate(buf);
-        } catch (DataFormatException e) {
-            throw new IOException("Bad compressed data format");
-        } finally {
-            inflater.end();
-        }
+        if (getType() == Type.V1_2_CHUNK) packetInput.readInt(); // unused
 
-        return new V1_2Chunk(chunkX, chunkZ, groundUp, primaryBitmap, additionalBitmap, compressedDataSize, chunk, buf, null);
+        packetInput.skipBytes(compressedDataSize);
     }
 
     @Override
@@ -95,9 +82,12 @@ public class V1_2_3RChunkDataType extends DataType<V1_2Chunk> {
         packetOutput.writeShort(chunk.getPrimaryBitmap() & 65535);
         packetOutput.writeShort(chunk.getAdditionalBitmap() & 65535);
 
-        packetOutput.writeInt(chunk.getCompressedDataSize());
+        byte[] data = chunk.getData();
+        int compressedDataSize = chunk.getCompressedDataSize();
+
+        packetOutput.writeInt(compressedDataSize);
         if (getType() == Type.V1_2_CHUNK) packetOutput.writeInt(0);
 
-        packetOutput.writeBytes(chunk.getData(), chunk.getCompressedDataSize());
+        packetOutput.writeBytes(data, compressedDataSize);
     }
 }
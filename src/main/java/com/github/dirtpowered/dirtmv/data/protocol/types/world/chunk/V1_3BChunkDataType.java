@@ -29,10 +29,6 @@ import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.V1_3BChunk;
 
-import java.util.zip.DataFormatException;
-import java.util.zip.Deflater;
-import java.util.zip.Inflater;
-
 public class V1_3BChunkDataType extends DataType<V1_3BChunk> {
 
     public V1_3BChunkDataType() {
@@ -49,24 +45,19 @@ public class V1_3BChunkDataType extends DataType<V1_3BChunk> {
         int ySize = packetInput.readUnsignedByte() + 1;
         int zSize = packetInput.readUnsignedByte() + 1;
 
-        byte[] chunk;
-
         int chunkSize = packetInput.readInt();
         byte[] buf = packetInput.readBytes(chunkSize);
 
-        chunk = new byte[xSize * ySize * zSize * 5 / 2];
-
-        Inflater inflater = new Inflater();
-        inflater.setInput(buf);
+        return new V1_3BChunk(x, y, z, xSize, ySize, zSize, null, buf);
+    }
 
-        try {
-            inflater.inflate(chunk);
-        } catch (DataFormatException ignored) {
-        } finally {
-            inflater.end();
-        }
+    @Override
+    public void skip(PacketInput packetInput) {
+        // chunk position and size
+        packetInput.skipBytes(13);
 
-        return new V1_3BChunk(x, y, z, xSize, ySize, zSize, chunk);
+        int chunkSize = packetInput.readInt();
+        packetInput.skipBytes(chunkSize);
     }
 
     @Override
@@ -81,19 +72,9 @@ public class V1_3BChunkDataType extends DataType<V1_3BChunk> {
         packetOutput.writeByte(data1.getYSize() - 1);
         packetOutput.writeByte(data1.getZSize() - 1);
 
-        byte[] data = data1.getChunk();
-        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
-
-        try {
-            deflater.setInput(data);
-            deflater.finish();
-            byte[] chunk = new byte[(data1.getXSize() + 1) * (data1.getZSize() + 1) * (data1.getYSize() + 1) * 5 / 2];
-            int chunkSize = deflater.deflate(chunk);
+        byte[] chunk = data1.getCompressedChunk();
 
-            packetOutput.writeInt(chunkSize);
-            packetOutput.writeBytes(chunk, chunkSize);
-        } finally {
-            deflater.end();
-        }
+        packetOutput.writeInt(chunk.length);
+        packetOutput.writeBytes(chunk, chunk.length);
     }
 }
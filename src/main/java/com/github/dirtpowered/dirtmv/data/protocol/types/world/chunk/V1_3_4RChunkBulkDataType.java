@@ -22,6 +22,7 @@
 
 package com.github.dirtpowered.dirtmv.data.protocol.types.world.chunk;
 
+import com.github.dirtpowered.dirtmv.data.chunk.ChunkBuffers;
 import com.github.dirtpowered.dirtmv.data.protocol.DataType;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
@@ -29,12 +30,16 @@ import com.github.dirtpowered.dirtmv.data.protocol.TypeObject;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.V1_3_4ChunkBulk;
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.io.IOException;
 import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
 
 public class V1_3_4RChunkBulkDataType extends DataType<V1_3_4ChunkBulk> {
+    // 16 sections with block ids, data, light and add arrays plus biomes
+    private static final int MAX_COLUMN_SIZE = 196864;
 
     public V1_3_4RChunkBulkDataType(TypeObject type) {
         super(type);
@@ -60,22 +65,26 @@ public class V1_3_4RChunkBulkDataType extends DataType<V1_3_4ChunkBulk> {
 
         byte[] compressedSizeArray = packetInput.readBytes(arrayLength);
 
-        byte[] decompressed = new byte[196864 * columnAmount];
-
-        Inflater inflater = new Inflater();
-        inflater.setInput(compressedSizeArray, 0, arrayLength);
+        // pooled scratch buffer, grows only as much as data needs
+        ByteBuf decompressed = ChunkBuffers.allocate(Math.min(arrayLength * 4, MAX_COLUMN_SIZE * columnAmount));
 
         try {
-            inflater.inflate(decompressed);
+            CompressionService.inflate(Unpooled.wrappedBuffer(compressedSizeArray, 0, arrayLength), decompressed, MAX_COLUMN_SIZE * columnAmount);
+
+            readColumns(packetInput, decompressed, columnX, columnZ, primaryBitMasks, additionalBitMasks, chunks);
         } catch (DataFormatException dataformatexception) {
             throw new IOException("Bad compressed data format");
         } finally {
-            inflater.end();
+            decompressed.release();
         }
 
-        int length = 0;
+        return new V1_3_4ChunkBulk(columnX, columnZ, skylight, primaryBitMasks, additionalBitMasks, compressedSizeArray, chunks, arrayLength);
+    }
 
-        for (int i = 0; i < columnAmount; i++) {
+    private void readColumns(PacketInput packetInput, ByteBuf decompressed, int[] columnX, int[] columnZ,
+                             int[] primaryBitMasks, int[] additionalBitMasks, byte[][] chunks) {
+
+        for (int i = 0; i < chunks.length; i++) {
             columnX[i] = packetInput.readInt();
             columnZ[i] = packetInput.readInt();
 
@@ -89,13 +98,23 @@ public class V1_3_4RChunkBulkDataType extends DataType<V1_3_4ChunkBulk> {
 
             int dataSize = 2048 * (5 * offset) + 256;
 
+            // missing data is left zeroed
             chunks[i] = new byte[dataSize];
-            System.arraycopy(decompressed, length, chunks[i], 0, dataSize);
+            decompressed.readBytes(chunks[i], 0, Math.min(dataSize, decompressed.readableBytes()));
+        }
+    }
 
-            length += dataSize;
+    @Override
+    public void skip(PacketInput packetInput) {
+        short columnAmount = packetInput.readShort();
+        int arrayLength = packetInput.readInt();
+
+        if (getType() == Type.V1_4CHUNK_BULK) {
+            packetInput.readBoolean();
         }
 
-        return new V1_3_4ChunkBulk(columnX, columnZ, skylight, primaryBitMasks, additionalBitMasks, compressedSizeArray, chunks, arrayLength);
+        // compressed data and column coords with bitmaps
+        packetInput.skipBytes(arrayLength + columnAmount * 12);
     }
 
     @Override
@@ -25,8 +25,10 @@ package com.github.dirtpowered.dirtmv.data.registry;
 import com.github.dirtpowered.dirtmv.DirtMultiVersion;
 import com.github.dirtpowered.dirtmv.api.Configuration;
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.translator.ProtocolPipeline;
 import com.github.dirtpowered.dirtmv.data.translator.ServerProtocol;
 import com.github.dirtpowered.dirtmv.data.user.UserData;
+import com.github.dirtpowered.dirtmv.data.utils.CommonUtils;
 import com.github.dirtpowered.dirtmv.network.versions.ProtocolPassthrough;
 import com.github.dirtpowered.dirtmv.network.versions.ProtocolPassthroughEncrypted;
 import com.github.dirtpowered.dirtmv.network.versions.ProtocolStateHandler;
@@ -44,6 +46,8 @@ public class TranslatorRegistry {
     @Getter
     private final Map<Integer, ServerProtocol> protocols = new ConcurrentHashMap<>();
 
+    private final Map<Long, ProtocolPipeline> pipelines = new ConcurrentHashMap<>();
+
     private final DirtMultiVersion main;
 
     public TranslatorRegistry(DirtMultiVersion main) {
@@ -56,6 +60,49 @@ public class TranslatorRegistry {
         protocols.put(clientProtocol, serverProtocol);
     }
 
+    /**
+     * Returns translator pipeline between client and configured server version. Pipeline is kept
+     * in user data until client version changes
+     *
+     * @param data User data
+     * @return {@link ProtocolPipeline} with prebuilt translator arrays
+     */
+    public ProtocolPipeline getPipeline(UserData data) {
+        ProtocolPipeline pipeline = data.getProtocolPipeline();
+
+        if (pipeline == null || pipeline.getClientVersion() != data.getClientVersion()) {
+            pipeline = getPipeline(data, main.getConfiguration().getServerVersion(), null);
+            data.setProtocolPipeline(pipeline);
+        }
+
+        return pipeline;
+    }
+
+    /**
+     * Returns cached translator pipeline between client and server version
+     *
+     * @param data      User data
+     * @param versionTo Server version
+     * @param from      Version the packet was sent from, can be null
+     * @return {@link ProtocolPipeline} with prebuilt translator arrays
+     */
+    public ProtocolPipeline getPipeline(UserData data, MinecraftVersion versionTo, MinecraftVersion from) {
+        MinecraftVersion clientVersion = data.getClientVersion();
+
+        // registry ids are starting from 9, so 0 is free for 'not set'
+        int fromId = from == null ? 0 : from.getRegistryId();
+        long key = CommonUtils.toLongKey(clientVersion.getRegistryId(), versionTo.getRegistryId(), fromId);
+
+        ProtocolPipeline pipeline = pipelines.get(key);
+
+        if (pipeline == null) {
+            pipeline = new ProtocolPipeline(clientVersion, versionTo, from, findProtocol(data, versionTo));
+            pipelines.put(key, pipeline);
+        }
+
+        return pipeline;
+    }
+
     /**
      * Returns all protocols translators between client and server version
      *
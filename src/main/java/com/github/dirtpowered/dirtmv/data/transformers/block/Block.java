@@ -45,8 +45,12 @@ public class Block {
         this.oldItemName = oldItemName;
     }
 
+    boolean hasNameTag() {
+        return oldItemName != null && !oldItemName.isEmpty();
+    }
+
     CompoundBinaryTag getNameTag(CompoundBinaryTag originalTag) {
-        if (oldItemName == null || oldItemName.isEmpty()) {
+        if (!hasNameTag()) {
             return originalTag;
         }
 
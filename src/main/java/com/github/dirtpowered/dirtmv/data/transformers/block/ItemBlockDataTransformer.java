@@ -22,6 +22,7 @@
 
 package com.github.dirtpowered.dirtmv.data.transformers.block;
 
+import com.github.dirtpowered.dirtmv.data.chunk.NibbleArray;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.ItemStack;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -35,6 +36,9 @@ public abstract class ItemBlockDataTransformer {
     @Getter
     private final Int2ObjectMap<Block> itemReplacementsMap = new Int2ObjectOpenHashMap<>();
 
+    // id << 4 | data -> id << 4 | data, created with first block replacement
+    private char[] blockTable;
+
     protected ItemBlockDataTransformer() {
         registerReplacements();
     }
@@ -46,15 +50,70 @@ public abstract class ItemBlockDataTransformer {
         return getBlockReplacementsMap().getOrDefault(key, new Block(blockId, blockData));
     }
 
+    /**
+     * Allocation free version of {@link #replaceBlock(int, int)}
+     *
+     * @return Replacement packed as id << 4 | data
+     */
+    public int remapBlock(int blockId, int blockData) {
+        int key = (blockId & 4095) << 4 | blockData & 15;
+
+        return blockTable == null ? key : blockTable[key];
+    }
+
+    /**
+     * Replaces blocks in place. Block ids are limited to 8 bits
+     *
+     * @param ids  Block ids
+     * @param data Block data in the same order as ids
+     */
+    public void remap(byte[] ids, NibbleArray data) {
+        if (blockTable == null) {
+            return;
+        }
+
+        char[] table = blockTable;
+        byte[] nibbles = data.getData();
+
+        for (int i = 0; i < ids.length; i += 2) {
+            int nibble = nibbles[i >> 1];
+
+            char low = table[(ids[i] & 255) << 4 | nibble & 15];
+            char high = table[(ids[i + 1] & 255) << 4 | nibble >> 4 & 15];
+
+            ids[i] = (byte) (low >> 4);
+            ids[i + 1] = (byte) (high >> 4);
+            nibbles[i >> 1] = (byte) (low & 15 | (high & 15) << 4);
+        }
+    }
+
     public ItemStack replaceItem(ItemStack itemStack) {
         int key = (itemStack.getItemId() * 16) + itemStack.getData();
         Block b = getItemReplacementsMap().getOrDefault(key, new Block(itemStack.getItemId(), itemStack.getData()));
 
-        return new ItemStack(b.getBlockId(), itemStack.getAmount(), b.getBlockData(), b.getNameTag(itemStack.getCompoundTag()));
+        ItemStack newItem = new ItemStack(b.getBlockId(), itemStack.getAmount(), b.getBlockData(), null);
+
+        if (b.hasNameTag()) {
+            newItem.setCompoundTag(b.getNameTag(itemStack.getCompoundTag()));
+        } else {
+            newItem.copyTag(itemStack);
+        }
+
+        return newItem;
     }
 
     protected void addBlockReplacement(int id, int data, Block to) {
         blockReplacementsMap.put((id * 16) + data, to);
+
+        if (blockTable == null) {
+            blockTable = new char[4096 * 16];
+
+            for (int i = 0; i < blockTable.length; i++) {
+                blockTable[i] = (char) i;
+            }
+        }
+
+        blockTable[(id & 4095) << 4 | data & 15] = (char) ((to.getBlockId() & 4095) << 4 | to.getBlockData() & 15);
     }
 
     protected void addItemReplacement(int id, int data, Block to) {
@@ -29,5 +29,13 @@ import java.io.IOException;
 
 public abstract class PacketTranslator {
 
+    /**
+     * Translates packet. Returning a different packet releases the passed one, so it can't be
+     * sent directly, packets given to {@link ServerSession#sendPacket} are released once written.
+     * Use {@link PacketData#copy()} to forward it
+     *
+     * @param data Packet, owned by the caller
+     * @return Translated packet or {@link ServerProtocol#cancel()}
+     */
     public abstract PacketData translate(ServerSession session, PacketData data) throws IOException;
 }
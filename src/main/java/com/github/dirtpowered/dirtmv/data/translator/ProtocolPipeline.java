@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.data.translator;
+
+import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolved, immutable chain of protocol translators between client and server version
+ */
+public class ProtocolPipeline {
+    private static final int MAX_OPCODE = 256;
+    private static final Step[] NO_STEPS = new Step[0];
+
+    @Getter
+    private final MinecraftVersion clientVersion;
+
+    @Getter
+    private final MinecraftVersion serverVersion;
+
+    @Getter
+    private final MinecraftVersion from;
+
+    private final ServerProtocol[] toClient;
+    private final ServerProtocol[] toServer;
+
+    // [direction][state][opCode] -> translators that are actually registered for that packet
+    private final Step[][][][] dispatchTable;
+
+    // [direction][state][opCode] -> packet content is never touched, so it can be forwarded without decoding
+    private final boolean[][][] passthroughTable;
+
+    /**
+     * @param clientVersion Client version
+     * @param serverVersion Version to translate to
+     * @param from          Version the packet was sent from (translators of that version are skipped), can be null
+     * @param protocols     Ordered protocol list (server -> client)
+     */
+    public ProtocolPipeline(MinecraftVersion clientVersion, MinecraftVersion serverVersion, MinecraftVersion from, List<ServerProtocol> protocols) {
+        this.clientVersion = clientVersion;
+        this.serverVersion = serverVersion;
+        this.from = from;
+
+        List<ServerProtocol> list = new ArrayList<>(protocols.size());
+        for (ServerProtocol protocol : protocols) {
+            // packet was created by that protocol, there is no need to translate it again
+            if (from != null && from == protocol.getFrom()) {
+                continue;
+            }
+
+            list.add(protocol);
+        }
+
+        this.toClient = list.toArray(new ServerProtocol[0]);
+        this.toServer = new ServerProtocol[toClient.length];
+
+        for (int i = 0; i < toClient.length; i++) {
+            toServer[i] = toClient[toClient.length - 1 - i];
+        }
+
+        this.dispatchTable = new Step[PacketDirection.values().length][][][];
+
+        for (PacketDirection direction : PacketDirection.values()) {
+            dispatchTable[direction.getDirectionId()] = compile(direction);
+        }
+
+        this.passthroughTable = new boolean[PacketDirection.values().length][ProtocolState.values().length][MAX_OPCODE];
+
+        for (PacketDirection direction : PacketDirection.values()) {
+            for (ProtocolState state : ProtocolState.values()) {
+                for (int opCode = 0; opCode < MAX_OPCODE; opCode++) {
+                    passthroughTable[direction.getDirectionId()][state.ordinal()][opCode] = canPassThrough(direction, state, opCode);
+                }
+            }
+        }
+    }
+
+    private Step[][][] compile(PacketDirection direction) {
+        ServerProtocol[] protocols = getProtocols(direction);
+        ProtocolState[] states = ProtocolState.values();
+
+        Step[][][] table = new Step[states.length][MAX_OPCODE][];
+        List<Step> steps = new ArrayList<>();
+
+        for (ProtocolState state : states) {
+            for (int opCode = 0; opCode < MAX_OPCODE; opCode++) {
+                steps.clear();
+
+                for (int i = 0; i < protocols.length; i++) {
+                    ServerProtocol protocol = protocols[i];
+
+                    // pre-netty translators are always looked up with pre-netty state
+                    ProtocolState hopState = protocol.getFrom().isNettyProtocol() ? state : ProtocolState.PRE_NETTY;
+                    PacketTranslator translator = protocol.getTranslatorFor(opCode, hopState, direction);
+
+                    if (translator != null) {
+                        steps.add(new Step(i, protocol, translator, hopState));
+                    }
+                }
+
+                table[state.ordinal()][opCode] = steps.isEmpty() ? NO_STEPS : steps.toArray(new Step[0]);
+            }
+        }
+
+        return table;
+    }
+
+    private boolean canPassThrough(PacketDirection direction, ProtocolState state, int opCode) {
+        int position = 0;
+        Step step;
+
+        // follow the packet through pipeline, only id remaps are allowed
+        while ((step = nextStep(direction, state, opCode, position)) != null) {
+            if (!(step.translator instanceof OpCodeTranslator)) {
+                return false;
+            }
+
+            opCode = ((OpCodeTranslator) step.translator).getOpCodeTo();
+            position = step.index + 1;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if packet can be forwarded as it is, without decoding its content
+     *
+     * @param direction {@link PacketDirection} sending direction
+     * @param state     Session protocol state
+     * @param opCode    Packet id
+     * @return true if no translator reads or modifies packet content
+     */
+    public boolean isPassthrough(PacketDirection direction, ProtocolState state, int opCode) {
+        if (opCode < 0 || opCode >= MAX_OPCODE) {
+            return false;
+        }
+
+        return passthroughTable[direction.getDirectionId()][state.ordinal()][opCode];
+    }
+
+    /**
+     * Gets all translators registered for given packet, ordered by position in pipeline
+     *
+     * @param direction {@link PacketDirection} sending direction
+     * @param state     Session protocol state
+     * @param opCode    Packet id
+     * @return array of {@link Step steps}, empty if packet is not translated at all
+     */
+    public Step[] getSteps(PacketDirection direction, ProtocolState state, int opCode) {
+        if (opCode < 0 || opCode >= MAX_OPCODE) {
+            return NO_STEPS;
+        }
+
+        return dispatchTable[direction.getDirectionId()][state.ordinal()][opCode];
+    }
+
+    /**
+     * Gets next translator for given packet, starting from provided pipeline position
+     *
+     * @param direction {@link PacketDirection} sending direction
+     * @param state     Session protocol state
+     * @param opCode    Packet id
+     * @param position  Pipeline position to start from
+     * @return next {@link Step step} or null if there is nothing left to translate
+     */
+    public Step nextStep(PacketDirection direction, ProtocolState state, int opCode, int position) {
+        for (Step step : getSteps(direction, state, opCode)) {
+            if (step.index >= position) {
+                return step;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets translators in order they should be applied
+     *
+     * @param direction {@link PacketDirection} sending direction
+     * @return array of {@link ServerProtocol protocol translators}
+     */
+    public ServerProtocol[] getProtocols(PacketDirection direction) {
+        return direction == PacketDirection.TO_CLIENT ? toClient : toServer;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Step {
+        private final int index;
+        private final ServerProtocol protocol;
+        private final PacketTranslator translator;
+        private final ProtocolState state;
+    }
+}
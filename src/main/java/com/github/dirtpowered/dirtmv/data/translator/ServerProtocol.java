@@ -27,7 +27,6 @@ import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeObject;
 import com.github.dirtpowered.dirtmv.data.utils.CommonUtils;
-import com.github.dirtpowered.dirtmv.data.utils.PacketUtil;
 import com.github.dirtpowered.dirtmv.network.server.ServerSession;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
@@ -35,6 +34,8 @@ import lombok.Getter;
 import lombok.Setter;
 
 public abstract class ServerProtocol implements ConnectionHandler {
+    private static final PacketData CANCEL = new PacketData(-1);
+
     private final Long2ObjectMap<PacketTranslator> registeredTranslators;
 
     @Getter
@@ -53,8 +54,11 @@ public abstract class ServerProtocol implements ConnectionHandler {
         registerTranslators();
     }
 
+    /**
+     * @return Shared packet which stops translation, it must not be modified
+     */
     public static PacketData cancel() {
-        return new PacketData(-1);
+        return CANCEL;
     }
 
     public abstract void registerTranslators();
@@ -72,13 +76,7 @@ public abstract class ServerProtocol implements ConnectionHandler {
     protected void addTranslator(int opCode, int opCodeTo, ProtocolState state, PacketDirection direction) {
         long key = CommonUtils.toLongKey(opCode, state.getStateId(), direction.getDirectionId());
 
-        registeredTranslators.put(key, new PacketTranslator() {
-
-            @Override
-            public PacketData translate(ServerSession session, PacketData data) {
-                return PacketUtil.createPacket(opCodeTo, data.getObjects());
-            }
-        });
+        registeredTranslators.put(key, new OpCodeTranslator(opCodeTo));
     }
 
     public PacketTranslator getTranslatorFor(int opCode, ProtocolState state, PacketDirection direction) {
@@ -25,6 +25,7 @@ package com.github.dirtpowered.dirtmv.data.user;
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.translator.PreNettyProtocolState;
+import com.github.dirtpowered.dirtmv.data.translator.ProtocolPipeline;
 import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
 import lombok.Data;
 
@@ -45,6 +46,7 @@ public class UserData {
     private int port;
     private ProtocolStorage protocolStorage;
     private UUID uniqueId;
+    private ProtocolPipeline protocolPipeline;
 
     public UserData() {
         this.protocolStorage = new ProtocolStorage();
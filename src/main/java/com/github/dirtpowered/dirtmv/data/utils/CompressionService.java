@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.data.utils;
+
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.concurrent.FastThreadLocal;
+import lombok.Getter;
+import org.pmw.tinylog.Logger;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Shared zlib service. Inflaters and deflaters are native objects and expensive to create,
+ * so every thread (event loop) keeps its own instances and reuses them
+ */
+public class CompressionService {
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final byte[] GZIP_HEADER = {(byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_GUNZIP_SIZE = 2097152;
+
+    private static final FastThreadLocal<Inflater> INFLATER = new FastThreadLocal<Inflater>() {
+
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater();
+        }
+
+        @Override
+        protected void onRemoval(Inflater inflater) {
+            inflater.end();
+        }
+    };
+
+    // deflater for each compression level (-1 - 9)
+    private static final FastThreadLocal<Deflater[]> DEFLATERS = new FastThreadLocal<Deflater[]>() {
+
+        @Override
+        protected Deflater[] initialValue() {
+            return new Deflater[11];
+        }
+
+        @Override
+        protected void onRemoval(Deflater[] deflaters) {
+            for (Deflater deflater : deflaters) {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+    };
+
+    private static final FastThreadLocal<Deflater> GZIP_DEFLATER = new FastThreadLocal<Deflater>() {
+
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+
+        @Override
+        protected void onRemoval(Deflater deflater) {
+            deflater.end();
+        }
+    };
+
+    private static final FastThreadLocal<Inflater> GZIP_INFLATER = new FastThreadLocal<Inflater>() {
+
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater(true);
+        }
+
+        @Override
+        protected void onRemoval(Inflater inflater) {
+            inflater.end();
+        }
+    };
+
+    @Getter
+    private static int betaChunkCompressionLevel = Deflater.BEST_SPEED;
+
+    @Getter
+    private static int chunkCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    @Getter
+    private static int packetCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    public static void configure(Configuration configuration) {
+        betaChunkCompressionLevel = checkLevel(configuration.getBetaChunkCompressionLevel(), Deflater.BEST_SPEED);
+        chunkCompressionLevel = checkLevel(configuration.getChunkCompressionLevel(), Deflater.DEFAULT_COMPRESSION);
+        packetCompressionLevel = checkLevel(configuration.getPacketCompressionLevel(), Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private static int checkLevel(int level, int defaultLevel) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            Logger.warn("invalid compression level {}, using {}", level, defaultLevel);
+            return defaultLevel;
+        }
+
+        return level;
+    }
+
+    /**
+     * Gets inflater owned by current thread. It has to be reset after use
+     */
+    public static Inflater getInflater() {
+        return INFLATER.get();
+    }
+
+    /**
+     * Gets deflater owned by current thread. It has to be reset after use
+     *
+     * @param level Compression level
+     */
+    public static Deflater getDeflater(int level) {
+        Deflater[] deflaters = DEFLATERS.get();
+        Deflater deflater = deflaters[level + 1];
+
+        if (deflater == null) {
+            deflater = new Deflater(level);
+            deflaters[level + 1] = deflater;
+        }
+
+        return deflater;
+    }
+
+    /**
+     * Inflates zlib data into provided array
+     *
+     * @return amount of inflated bytes
+     * @throws DataFormatException when data is malformed
+     */
+    public static int inflate(byte[] input, int offset, int length, byte[] output) throws DataFormatException {
+        Inflater inflater = getInflater();
+
+        try {
+            inflater.setInput(input, offset, length);
+            return inflater.inflate(output);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    /**
+     * Deflates data with given compression level
+     *
+     * @return compressed data, array length is the compressed size
+     */
+    public static byte[] deflate(byte[] input, int offset, int length, int level) {
+        Deflater deflater = getDeflater(level);
+
+        try {
+            deflater.setInput(input, offset, length);
+            deflater.finish();
+
+            return deflate(deflater, length);
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Deflates readable bytes of input buffer into output buffer. Heap buffers are
+     * compressed in place, without copying
+     *
+     * @param input  Input, fully consumed
+     * @param output Output, grows when needed
+     * @param level  Compression level
+     */
+    public static void deflate(ByteBuf input, ByteBuf output, int level) {
+        Deflater deflater = getDeflater(level);
+
+        try {
+            if (input.hasArray()) {
+                deflater.setInput(input.array(), input.arrayOffset() + input.readerIndex(), input.readableBytes());
+                input.skipBytes(input.readableBytes());
+            } else {
+                deflater.setInput(ByteBufUtil.getBytes(input));
+                input.skipBytes(input.readableBytes());
+            }
+
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                output.ensureWritable(BUFFER_SIZE);
+
+                if (output.hasArray()) {
+                    int writerIndex = output.writerIndex();
+                    int written = deflater.deflate(output.array(), output.arrayOffset() + writerIndex, output.writableBytes());
+
+                    output.writerIndex(writerIndex + written);
+                } else {
+                    byte[] chunk = new byte[BUFFER_SIZE];
+                    output.writeBytes(chunk, 0, deflater.deflate(chunk));
+                }
+            }
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Inflates readable bytes of input buffer into output buffer
+     *
+     * @param input   Input, fully consumed
+     * @param output  Output
+     * @param maxSize Max amount of inflated bytes
+     * @throws DataFormatException when data is malformed or inflated data is bigger than maxSize
+     */
+    public static void inflate(ByteBuf input, ByteBuf output, int maxSize) throws DataFormatException {
+        Inflater inflater = getInflater();
+
+        try {
+            if (input.hasArray()) {
+                inflater.setInput(input.array(), input.arrayOffset() + input.readerIndex(), input.readableBytes());
+            } else {
+                inflater.setInput(ByteBufUtil.getBytes(input));
+            }
+
+            input.skipBytes(input.readableBytes());
+
+            int size = 0;
+            byte[] chunk = output.hasArray() ? null : new byte[BUFFER_SIZE];
+
+            while (!inflater.finished()) {
+                if (size >= maxSize) {
+                    // there can be only end of the stream left
+                    if (inflater.inflate(new byte[1]) > 0) {
+                        throw new DataFormatException("Inflated data is bigger than " + maxSize + " bytes");
+                    }
+
+                    if (inflater.finished()) {
+                        break;
+                    }
+
+                    throw new DataFormatException("Truncated compressed data");
+                }
+
+                int length = Math.min(maxSize - size, BUFFER_SIZE);
+                output.ensureWritable(length);
+
+                int inflated;
+                if (chunk == null) {
+                    int writerIndex = output.writerIndex();
+
+                    inflated = inflater.inflate(output.array(), output.arrayOffset() + writerIndex, length);
+                    output.writerIndex(writerIndex + inflated);
+                } else {
+                    inflated = inflater.inflate(chunk, 0, length);
+                    output.writeBytes(chunk, 0, inflated);
+                }
+
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed data");
+                }
+
+                size += inflated;
+            }
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    /**
+     * Compresses data to gzip format
+     *
+     * @return gzip data
+     */
+    public static byte[] gzip(byte[] input) {
+        Deflater deflater = GZIP_DEFLATER.get();
+
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+
+            byte[] compressed = deflate(deflater, input.length);
+            byte[] output = new byte[GZIP_HEADER.length + compressed.length + GZIP_TRAILER_SIZE];
+
+            System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER.length);
+            System.arraycopy(compressed, 0, output, GZIP_HEADER.length, compressed.length);
+
+            CRC32 crc = new CRC32();
+            crc.update(input);
+
+            int trailer = GZIP_HEADER.length + compressed.length;
+            writeIntLE(output, trailer, (int) crc.getValue());
+            writeIntLE(output, trailer + 4, input.length);
+
+            return output;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Decompresses gzip data written without optional header fields
+     *
+     * @return decompressed data
+     * @throws DataFormatException when data is malformed or uses unsupported header
+     */
+    public static byte[] gunzip(byte[] input) throws DataFormatException {
+        if (input.length < GZIP_HEADER.length + GZIP_TRAILER_SIZE || readShortLE(input, 0) != GZIP_MAGIC) {
+            throw new DataFormatException("Not in gzip format");
+        }
+
+        if (input[2] != Deflater.DEFLATED || input[3] != 0) {
+            throw new DataFormatException("Unsupported gzip header");
+        }
+
+        int trailer = input.length - GZIP_TRAILER_SIZE;
+        int size = readIntLE(input, trailer + 4);
+
+        if (size < 0 || size > MAX_GUNZIP_SIZE) {
+            throw new DataFormatException("Invalid gzip data size " + size);
+        }
+
+        byte[] output = new byte[size];
+        Inflater inflater = GZIP_INFLATER.get();
+
+        try {
+            inflater.setInput(input, GZIP_HEADER.length, trailer - GZIP_HEADER.length);
+
+            if (inflater.inflate(output) != size || !inflater.finished()) {
+                throw new DataFormatException("Truncated gzip data");
+            }
+        } finally {
+            inflater.reset();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(output);
+
+        if ((int) crc.getValue() != readIntLE(input, trailer)) {
+            throw new DataFormatException("Corrupt gzip data");
+        }
+
+        return output;
+    }
+
+    private static byte[] deflate(Deflater deflater, int sizeHint) {
+        byte[] output = new byte[Math.max(64, sizeHint / 2)];
+        int size = 0;
+
+        while (!deflater.finished()) {
+            if (size == output.length) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+
+            size += deflater.deflate(output, size, output.length - size);
+        }
+
+        return size == output.length ? output : Arrays.copyOf(output, size);
+    }
+
+    private static int readShortLE(byte[] data, int offset) {
+        return data[offset] & 255 | (data[offset + 1] & 255) << 8;
+    }
+
+    private static int readIntLE(byte[] data, int offset) {
+        return readShortLE(data, offset) | readShortLE(data, offset + 2) << 16;
+    }
+
+    private static void writeIntLE(byte[] data, int offset, int value) {
+        data[offset] = (byte) value;
+        data[offset + 1] = (byte) (value >> 8);
+        data[offset + 2] = (byte) (value >> 16);
+        data[offset + 3] = (byte) (value >> 24);
+    }
+}
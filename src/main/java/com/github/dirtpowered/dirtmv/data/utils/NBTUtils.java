@@ -24,6 +24,7 @@ package com.github.dirtpowered.dirtmv.data.utils;
 
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketOutput;
+import com.github.dirtpowered.dirtmv.data.protocol.objects.ItemStack;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.ByteBufOutputStream;
@@ -35,7 +36,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.DataFormatException;
 
 public class NBTUtils {
 
@@ -46,27 +47,66 @@ public class NBTUtils {
      * @return CompoundBinaryTag - NBT Tag
      */
     public static CompoundBinaryTag readNBT(PacketInput packetInput) {
-        try {
-            short size = packetInput.readShort();
+        short size = packetInput.readShort();
 
-            if (size < 0) {
-                return null;
-            } else {
-                byte[] data = packetInput.readBytes(size);
-                CompoundBinaryTag tag = null;
-                try {
-                    tag = BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(data));
-                } catch (IllegalArgumentException e) {
-                    Logger.error("error while parsing NBT data: {}", e.getMessage());
-                }
-                return tag;
+        if (size < 0) {
+            return null;
+        }
+
+        return readNBT(packetInput.readBytes(size));
+    }
+
+    /**
+     * Parses compressed binary tag
+     *
+     * @param data Gzip compressed tag
+     * @return CompoundBinaryTag - NBT Tag, null if data is malformed
+     */
+    public static CompoundBinaryTag readNBT(byte[] data) {
+        try {
+            CompoundBinaryTag tag = null;
+            try {
+                tag = BinaryTagIO.readCompressedInputStream(new ByteArrayInputStream(data));
+            } catch (IllegalArgumentException e) {
+                Logger.error("error while parsing NBT data: {}", e.getMessage());
             }
+            return tag;
         } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Reads compressed binary tag from network without parsing it
+     *
+     * @param packetInput Network input
+     * @return Gzip compressed tag, null if item has no tag
+     */
+    public static byte[] readRawNBT(PacketInput packetInput) {
+        short size = packetInput.readShort();
+
+        // empty tag can't be parsed, it's dropped like before
+        if (size <= 0) {
+            return null;
+        }
+
+        return packetInput.readBytes(size);
+    }
+
+    /**
+     * Skips compressed binary tag without decompressing it
+     *
+     * @param packetInput Network input
+     */
+    public static void skipNBT(PacketInput packetInput) {
+        short size = packetInput.readShort();
+
+        if (size > 0) {
+            packetInput.skipBytes(size);
+        }
+    }
+
     /**
      * Reads uncompressed binary tag from network
      *
@@ -111,11 +151,11 @@ public class NBTUtils {
             } else {
                 ByteArrayOutputStream var1 = new ByteArrayOutputStream();
 
-                try (DataOutputStream var2 = new DataOutputStream(new GZIPOutputStream(var1))) {
+                try (DataOutputStream var2 = new DataOutputStream(var1)) {
                     BinaryTagIO.writeDataOutput(tag, var2);
                 }
 
-                byte[] data = var1.toByteArray();
+                byte[] data = CompressionService.gzip(var1.toByteArray());
 
                 packetOutput.writeShort((short) data.length);
                 packetOutput.writeBytes(data);
@@ -125,6 +165,43 @@ public class NBTUtils {
         }
     }
 
+    /**
+     * Writes compressed item tag to network. Tag which wasn't parsed is copied as is
+     *
+     * @param itemStack    Item
+     * @param packetOutput Network output
+     */
+    public static void writeNBT(ItemStack itemStack, PacketOutput packetOutput) {
+        byte[] rawTag = itemStack.getRawTag();
+
+        if (rawTag == null) {
+            writeNBT(itemStack.getCompoundTag(), packetOutput);
+        } else {
+            packetOutput.writeShort(rawTag.length);
+            packetOutput.writeBytes(rawTag);
+        }
+    }
+
+    /**
+     * Writes uncompressed item tag to network. Tag which wasn't parsed is only decompressed
+     *
+     * @param itemStack    Item
+     * @param packetOutput Network output
+     */
+    public static void writeNBTUncompressed(ItemStack itemStack, PacketOutput packetOutput) {
+        byte[] rawTag = itemStack.getRawTag();
+
+        if (rawTag != null) {
+            try {
+                packetOutput.writeBytes(CompressionService.gunzip(rawTag));
+                return;
+            } catch (DataFormatException ignored) {
+                // unusual gzip header, parse it instead
+            }
+        }
+
+        writeNBTUncompressed(itemStack.getCompoundTag(), packetOutput);
+    }
 
     /**
      * Writes uncompressed binary tag to network
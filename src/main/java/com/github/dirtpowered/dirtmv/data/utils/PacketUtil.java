@@ -27,12 +27,14 @@ import com.github.dirtpowered.dirtmv.data.protocol.BaseProtocol;
 import com.github.dirtpowered.dirtmv.data.protocol.DataType;
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
+import com.github.dirtpowered.dirtmv.data.protocol.TypeObject;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.registry.ProtocolRegistry;
 import com.github.dirtpowered.dirtmv.data.translator.PacketDirection;
 import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
 import com.github.dirtpowered.dirtmv.data.utils.other.PreNettyPacketNames;
 import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
 import org.pmw.tinylog.Logger;
 
 import java.io.IOException;
@@ -49,18 +51,23 @@ public class PacketUtil {
             return new PacketData(0);
         }
 
-        TypeHolder[] typeHolders = new TypeHolder[parts.length];
-
-        int i = 0;
+        return PacketData.decode(id, parts, buf);
+    }
 
-        while (i < parts.length) {
-            DataType dataType = parts[i];
+    /**
+     * Reads packet content without decoding it. Returned packet holds retained slice of the buffer
+     *
+     * @return raw {@link PacketData} or null if packet is unknown
+     */
+    public static PacketData readRawModernPacket(MinecraftVersion ver, ProtocolState state, ByteBuf buf, PacketDirection dir, int id) {
+        BaseProtocol protocol = ProtocolRegistry.getProtocolFromVersion(ver);
+        DataType[] parts = protocol.getStateDependedProtocol().getInstruction(id, state, dir);
 
-            typeHolders[i] = new TypeHolder(dataType.getType(), dataType.read(buf));
-            i++;
+        if (parts == null) {
+            return null;
         }
 
-        return new PacketData(id, typeHolders);
+        return new PacketData(id, parts, buf.readRetainedSlice(buf.readableBytes()));
     }
 
     public static PacketData readPacket(MinecraftVersion version, PacketInput buffer) throws IOException {
@@ -78,6 +85,51 @@ public class PacketUtil {
 
         Preconditions.checkNotNull(parts, "Unknown packet id %s (%s) in protocol %s", packetId, packetMapping, protocolName);
 
+        return PacketData.decode(packetId, parts, buffer);
+    }
+
+    /**
+     * Measures pre-netty packet without decoding it, reader index is moved past the packet
+     *
+     * @param version Protocol version
+     * @param buffer  Network input
+     * @return packet length (including packet id)
+     * @throws IndexOutOfBoundsException if buffer doesn't contain whole packet yet
+     */
+    public static int measurePacket(MinecraftVersion version, PacketInput buffer) throws IOException {
+        ByteBuf buf = buffer.getBuffer();
+        int readerIndex = buf.readerIndex();
+
+        short packetId = buffer.readUnsignedByte();
+        BaseProtocol protocol = ProtocolRegistry.getProtocolFromVersion(version);
+
+        DataType[] parts = protocol.dataTypes[packetId];
+        Preconditions.checkNotNull(parts, "Unknown packet id %s (%s) in protocol %s",
+                packetId, PreNettyPacketNames.getPacketName(packetId), protocol.getClass().getSimpleName());
+
+        for (DataType dataType : parts) {
+            dataType.skip(buffer);
+        }
+
+        return buf.readerIndex() - readerIndex;
+    }
+
+    /**
+     * Reads pre-netty packet without decoding it. Returned packet holds retained slice of the buffer
+     *
+     * @param version Protocol version
+     * @param buffer  Network input
+     * @param length  Packet length (including packet id)
+     * @return raw {@link PacketData}
+     */
+    public static PacketData readRawPacket(MinecraftVersion version, ByteBuf buffer, int length) {
+        short packetId = buffer.readUnsignedByte();
+        DataType[] parts = ProtocolRegistry.getProtocolFromVersion(version).dataTypes[packetId];
+
+        return new PacketData(packetId, parts, buffer.readRetainedSlice(length - 1));
+    }
+
+    public static TypeHolder[] readObjects(DataType[] parts, PacketInput buffer) throws IOException {
         TypeHolder[] typeHolders = new TypeHolder[parts.length];
 
         int i = 0;
@@ -88,10 +140,23 @@ public class PacketUtil {
             i++;
         }
 
-        return new PacketData(packetId, typeHolders);
+        return typeHolders;
     }
 
     public static PacketData createPacket(int packetId, TypeHolder[] packetData) {
         return new PacketData(packetId, packetData);
     }
+
+    /**
+     * Creates pooled packet with primitive slot storage, fields have to be set with typed
+     * accessors like {@link PacketData#writeInt(int, int)}. Packet returns to the pool
+     * once it's written
+     *
+     * @param packetId Packet id
+     * @param types    Packet structure
+     * @return {@link PacketData} packet
+     */
+    public static PacketData createPacket(int packetId, TypeObject... types) {
+        return PacketData.newInstance(packetId, types);
+    }
 }
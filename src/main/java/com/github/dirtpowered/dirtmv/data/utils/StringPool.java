@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.data.utils;
+
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of short strings decoded from packets (player, team, channel and sound names).
+ * Strings are looked up by their raw bytes, so repeated strings decode to the same instance
+ * without allocation. Cache is direct-mapped, colliding string replaces the previous one
+ */
+public class StringPool {
+    // longer strings (mostly chat messages) are rarely repeated
+    private static final int MAX_LENGTH = 48;
+    private static final int MAX_SIZE = 1 << 20;
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    // null if pool is disabled
+    private static Entry[] ucs2Entries;
+    private static Entry[] utf8Entries;
+
+    public static void configure(Configuration configuration) {
+        int size = configuration.getStringPoolSize();
+
+        if (size <= 0) {
+            ucs2Entries = null;
+            utf8Entries = null;
+            return;
+        }
+
+        // power of two, so index is just masked hash
+        int capacity = 1;
+
+        while (capacity < Math.min(size, MAX_SIZE)) {
+            capacity <<= 1;
+        }
+
+        ucs2Entries = new Entry[capacity];
+        utf8Entries = new Entry[capacity];
+    }
+
+    /**
+     * Reads UCS-2 (UTF-16BE) string without moving reader index
+     *
+     * @param buf    Buffer
+     * @param index  Start index
+     * @param length String length in chars
+     * @return Pooled or newly decoded string
+     */
+    public static String readUcs2(ByteBuf buf, int index, int length) {
+        Entry[] entries = ucs2Entries;
+
+        if (entries == null || length > MAX_LENGTH) {
+            return decodeUcs2(buf, index, length);
+        }
+
+        int hash = 0;
+
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buf.getChar(index + (i << 1));
+        }
+
+        int slot = (hash ^ hash >>> 16) & entries.length - 1;
+        Entry entry = entries[slot];
+
+        if (entry != null && equalsUcs2(entry.value, buf, index, length)) {
+            HITS.increment();
+            return entry.value;
+        }
+
+        MISSES.increment();
+
+        String value = decodeUcs2(buf, index, length);
+        entries[slot] = new Entry(value, null);
+
+        return value;
+    }
+
+    /**
+     * Reads UTF-8 string without moving reader index
+     *
+     * @param buf    Buffer
+     * @param index  Start index
+     * @param length String length in bytes
+     * @return Pooled or newly decoded string
+     */
+    public static String readUtf8(ByteBuf buf, int index, int length) {
+        Entry[] entries = utf8Entries;
+
+        if (entries == null || length > MAX_LENGTH) {
+            return buf.toString(index, length, StandardCharsets.UTF_8);
+        }
+
+        int hash = 0;
+
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buf.getByte(index + i);
+        }
+
+        int slot = (hash ^ hash >>> 16) & entries.length - 1;
+        Entry entry = entries[slot];
+
+        if (entry != null && equalsUtf8(entry.bytes, buf, index, length)) {
+            HITS.increment();
+            return entry.value;
+        }
+
+        MISSES.increment();
+
+        byte[] bytes = new byte[length];
+        buf.getBytes(index, bytes);
+
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        entries[slot] = new Entry(value, bytes);
+
+        return value;
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * @return Ratio of strings taken from pool, 0 if nothing was looked up yet
+     */
+    public static double getHitRate() {
+        long hitCount = HITS.sum();
+        long total = hitCount + MISSES.sum();
+
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static String decodeUcs2(ByteBuf buf, int index, int length) {
+        // decoded char by char, charset decoder would replace unpaired surrogates
+        char[] chars = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            chars[i] = buf.getChar(index + (i << 1));
+        }
+
+        return new String(chars);
+    }
+
+    private static boolean equalsUcs2(String value, ByteBuf buf, int index, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != buf.getChar(index + (i << 1))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean equalsUtf8(byte[] bytes, ByteBuf buf, int index, int length) {
+        if (bytes.length != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != buf.getByte(index + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class Entry {
+        private final String value;
+
+        // raw UTF-8 bytes, null for UCS-2 strings
+        private final byte[] bytes;
+
+        Entry(String value, byte[] bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
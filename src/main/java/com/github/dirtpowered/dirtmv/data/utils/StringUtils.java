@@ -27,4 +27,24 @@ public class StringUtils {
     public static String intToHexStr(int i) {
         return "0x" + String.format("%2s", Integer.toHexString(i)).replace(' ', '0').toUpperCase();
     }
+
+    /**
+     * Netty UTF-8 encoder mangles char following unpaired high surrogate, such strings have to
+     * be encoded by JDK (unpaired surrogates become '?')
+     */
+    public static boolean hasUnpairedSurrogate(String string) {
+        int length = string.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
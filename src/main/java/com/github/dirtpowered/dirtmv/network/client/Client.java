@@ -29,13 +29,11 @@ import com.github.dirtpowered.dirtmv.data.utils.ChatUtils;
 import com.github.dirtpowered.dirtmv.network.server.ServerSession;
 import com.github.dirtpowered.dirtmv.network.server.codec.ChannelConstants;
 import com.github.dirtpowered.dirtmv.network.server.codec.PipelineFactory;
+import com.github.dirtpowered.dirtmv.network.transport.TransportType;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 
 import java.net.InetSocketAddress;
 import java.util.UUID;
@@ -48,15 +46,16 @@ public class Client {
     }
 
     public void createClient(UUID key, Callback callback) {
-        EventLoopGroup loopGroup = serverSession.getMain().getLoopGroup();
         Bootstrap clientBootstrap = new Bootstrap();
 
-        clientBootstrap.group(loopGroup);
-        clientBootstrap.channel(NioSocketChannel.class);
-        clientBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
-        clientBootstrap.option(ChannelOption.TCP_NODELAY, true);
-
+        // keep both connections of the player on the same thread
+        clientBootstrap.group(serverSession.getChannel().eventLoop());
         Configuration c = serverSession.getMain().getConfiguration();
+        TransportType transport = serverSession.getServer().getTransport();
+
+        // channel type has to match the event loop
+        clientBootstrap.channel(transport.getSocketChannel());
+        transport.applyClientOptions(clientBootstrap, c);
 
         clientBootstrap.remoteAddress(new InetSocketAddress(c.getRemoteServerAddress(), c.getRemoteServerPort()));
 
@@ -32,6 +32,7 @@ import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
 import com.github.dirtpowered.dirtmv.data.translator.ServerProtocol;
 import com.github.dirtpowered.dirtmv.network.server.ServerSession;
 import com.github.dirtpowered.dirtmv.session.MultiSession;
+import com.github.dirtpowered.dirtmv.session.PacketWriter;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
@@ -53,6 +54,7 @@ public class ClientSession extends SimpleChannelInboundHandler<PacketData> {
 
     private final Callback callback;
     private final DirtMultiVersion main;
+    private final PacketWriter packetWriter;
 
     private boolean stateLock;
 
@@ -63,6 +65,7 @@ public class ClientSession extends SimpleChannelInboundHandler<PacketData> {
         this.key = key;
         this.callback = callback;
         this.stateLock = false;
+        this.packetWriter = new PacketWriter(ch, main.getConfiguration());
     }
 
     @Override
@@ -88,10 +91,19 @@ public class ClientSession extends SimpleChannelInboundHandler<PacketData> {
         }
     }
 
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        serverSession.flush();
+        flush();
+
+        super.channelReadComplete(ctx);
+    }
+
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
         Logger.info("[{}] connected to remote server", serverSession.getLogTag());
         serverSession.getMain().getSessionRegistry().addSession(key, new MultiSession(this, serverSession));
+        serverSession.startTicking();
 
         callback.onComplete();
     }
@@ -100,6 +112,7 @@ public class ClientSession extends SimpleChannelInboundHandler<PacketData> {
     public void channelInactive(ChannelHandlerContext ctx) {
         Logger.info("[{}] disconnected from remote server", serverSession.getLogTag());
         serverSession.getMain().getSessionRegistry().removeSession(key);
+        serverSession.stopTicking();
         channel.close();
 
         // disconnect from proxy
@@ -120,13 +133,21 @@ public class ClientSession extends SimpleChannelInboundHandler<PacketData> {
      * @param packetData {@link PacketData} Packet
      */
     public void sendPacket(PacketData packetData) {
-        channel.writeAndFlush(packetData);
+        packetWriter.write(packetData);
+    }
+
+    /**
+     * Flushes packets written to server
+     */
+    public void flush() {
+        packetWriter.flush();
     }
 
     /**
      * Closing remote connection
      */
     public void disconnectRemote() {
+        flush();
         channel.close();
     }
 }
@@ -30,15 +30,13 @@ import com.github.dirtpowered.dirtmv.data.user.UserData;
 import com.github.dirtpowered.dirtmv.network.server.codec.ChannelConstants;
 import com.github.dirtpowered.dirtmv.network.server.codec.ConnectionLimiterHandler;
 import com.github.dirtpowered.dirtmv.network.server.codec.PipelineFactory;
+import com.github.dirtpowered.dirtmv.network.transport.TransportType;
 import com.github.dirtpowered.dirtmv.session.MultiSession;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import lombok.Getter;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.IOUtils;
@@ -55,8 +53,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Server implements DirtServer {
-    private final EventLoopGroup bossGroup = new NioEventLoopGroup();
-    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+
+    @Getter
+    private final TransportType transport;
 
     @Getter
     private final DirtMultiVersion main;
@@ -70,13 +71,19 @@ public class Server implements DirtServer {
         this.main = main;
         this.instance = this;
 
+        this.transport = TransportType.select(main.getConfiguration().getTransport());
+        this.bossGroup = transport.newEventLoopGroup(1);
+        this.workerGroup = transport.newEventLoopGroup(0);
+
+        Logger.info("using {} transport", transport.getName());
+
         setupServerIcon();
     }
 
     public void bind() {
         ServerBootstrap b = new ServerBootstrap();
         b.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.getServerChannel())
                 .childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     public void initChannel(SocketChannel channel) {
@@ -95,8 +102,9 @@ public class Server implements DirtServer {
                                 serverSession
                         );
                     }
-                })
-                .childOption(ChannelOption.SO_KEEPALIVE, true);
+                });
+
+        transport.applyServerOptions(b, main.getConfiguration());
 
         ChannelFuture future;
         try {
@@ -24,14 +24,14 @@ package com.github.dirtpowered.dirtmv.network.server;
 
 import com.github.dirtpowered.dirtmv.DirtMultiVersion;
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.interfaces.Releasable;
 import com.github.dirtpowered.dirtmv.data.interfaces.Tickable;
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.translator.PacketDirection;
-import com.github.dirtpowered.dirtmv.data.translator.PacketTranslator;
+import com.github.dirtpowered.dirtmv.data.translator.ProtocolPipeline;
 import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
-import com.github.dirtpowered.dirtmv.data.translator.ServerProtocol;
 import com.github.dirtpowered.dirtmv.data.user.ProtocolStorage;
 import com.github.dirtpowered.dirtmv.data.user.UserData;
 import com.github.dirtpowered.dirtmv.data.utils.ChatUtils;
@@ -39,24 +39,28 @@ import com.github.dirtpowered.dirtmv.data.utils.PacketUtil;
 import com.github.dirtpowered.dirtmv.data.utils.other.PreNettyPacketNames;
 import com.github.dirtpowered.dirtmv.network.client.Client;
 import com.github.dirtpowered.dirtmv.network.client.ClientSession;
+import com.github.dirtpowered.dirtmv.session.DeferredPacketQueue;
 import com.github.dirtpowered.dirtmv.session.MultiSession;
+import com.github.dirtpowered.dirtmv.session.OrderedPacketQueue;
+import com.github.dirtpowered.dirtmv.session.PacketWriter;
+import com.github.dirtpowered.dirtmv.session.TickTimings;
 import com.google.common.base.Preconditions;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.util.internal.StringUtil;
-import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.pmw.tinylog.Logger;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -75,13 +79,16 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
 
     private final Client client;
     private final UUID key;
+    private final PacketWriter packetWriter;
 
     private final Queue<PacketData> initialPacketQueue = new LinkedBlockingQueue<>();
-    private final Queue<QueuedPacket> packetQueue = new LinkedBlockingQueue<>();
+    private final DeferredPacketQueue packetQueue;
+    private final OrderedPacketQueue outboundQueue;
     private final AtomicInteger packetCounter = new AtomicInteger();
     @Getter
     private final Server server;
     private int currentTick = 0;
+    private ScheduledFuture<?> tickTask;
 
     ServerSession(SocketChannel channel, DirtMultiVersion instance, Server server) {
         this.key = UUID.randomUUID();
@@ -91,6 +98,10 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
         this.main = instance;
         this.client = new Client(this);
         this.server = server;
+        this.packetWriter = new PacketWriter(channel, instance.getConfiguration());
+        this.packetQueue = new DeferredPacketQueue(channel.eventLoop(), instance.getConfiguration(),
+                queuedPacket -> sendPacket(queuedPacket.getPacket(), queuedPacket.getDirection(), queuedPacket.getVersion()));
+        this.outboundQueue = new OrderedPacketQueue(channel.eventLoop(), this::sendPacket, this::flush);
     }
 
     /**
@@ -101,65 +112,66 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
      * @param from      Version to start from
      */
     public void sendPacket(PacketData packet, PacketDirection direction, MinecraftVersion from) {
-        MinecraftVersion version = main.getConfiguration().getServerVersion();
-        if (from != null && from != version) {
-            version = from;
-        }
-
-        List<ServerProtocol> protocols = main.getTranslatorRegistry().findProtocol(userData, version);
+        ProtocolPipeline pipeline = getPipeline(from);
 
         boolean flag = direction == PacketDirection.TO_CLIENT;
+        boolean isNetty = userData.getClientVersion().isNettyProtocol();
 
-        if (!flag) Collections.reverse(protocols);
+        // source packet is released (pooled one recycled) once a translator replaces it
+        ProtocolState packetState = packet.getNettyState();
+        String namedOpCode = PreNettyPacketNames.getPacketName(packet.getOpCode());
 
         PacketData target = packet;
+        int position = 0;
 
-        for (ServerProtocol protocol : protocols) {
-            boolean isNetty = userData.getClientVersion().isNettyProtocol();
+        while (true) {
             ProtocolState state = isNetty ? userData.getProtocolState() : ProtocolState.PRE_NETTY;
-            if (target == null) {
-                return;
-            }
 
             // packet queue workaround
-            state = packet.getNettyState() != null ? packet.getNettyState() : state;
+            state = packetState != null ? packetState : state;
+
+            // jump straight to the next translator which is registered for that packet
+            ProtocolPipeline.Step step = pipeline.nextStep(direction, state, target.getOpCode(), position);
 
-            if (!protocol.getFrom().isNettyProtocol()) {
-                state = ProtocolState.PRE_NETTY;
+            if (step == null) {
+                break;
             }
 
-            PacketTranslator translator = protocol.getTranslatorFor(target.getOpCode(), state, direction);
+            position = step.getIndex() + 1;
+            state = step.getState();
 
-            String protocolName = protocol.getClass().getSimpleName();
+            String protocolName = step.getProtocol().getClass().getSimpleName();
 
-            if (translator != null) {
-                if (from == null || from != protocol.getFrom()) {
-                    try {
-                        target = translator.translate(this, target);
-                    } catch (IOException e) {
-                        disconnect(e.getMessage());
-                    }
+            PacketData source = target;
 
-                    String namedOpCode = PreNettyPacketNames.getPacketName(packet.getOpCode());
-                    Preconditions.checkNotNull(target, "%s returned null while translating %s", protocolName, namedOpCode);
+            try {
+                target = step.getTranslator().translate(this, target);
+            } catch (IOException e) {
+                disconnect(e.getMessage());
+            }
+
+            if (target != source) {
+                // raw payload wasn't used by translator
+                source.release();
+            }
 
-                    boolean debug = main.getConfiguration().isDebugMode();
+            Preconditions.checkNotNull(target, "%s returned null while translating %s", protocolName, namedOpCode);
 
-                    if (target.getOpCode() == -1) {
-                        if (state == ProtocolState.PRE_NETTY && debug) {
-                            Logger.debug("cancelling {} | direction: {} | through {}", namedOpCode, direction.name(), protocolName);
-                        }
-                        return;
-                    }
-                    if (state == ProtocolState.PRE_NETTY && debug) {
-                        Logger.debug("translating {} | direction: {} | through {}", namedOpCode, direction.name(), protocolName);
-                    }
+            boolean debug = main.getConfiguration().isDebugMode();
+
+            if (target.getOpCode() == -1) {
+                if (state == ProtocolState.PRE_NETTY && debug) {
+                    Logger.debug("cancelling {} | direction: {} | through {}", namedOpCode, direction.name(), protocolName);
                 }
+                return;
+            }
+            if (state == ProtocolState.PRE_NETTY && debug) {
+                Logger.debug("translating {} | direction: {} | through {}", namedOpCode, direction.name(), protocolName);
             }
         }
 
         if (flag) {
-            sendPacket(target);
+            outboundQueue.write(target);
         } else {
             ClientSession clientSession = getClientSession();
 
@@ -178,23 +190,88 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
         }
     }
 
-    private void handleQueuedPackets() {
-        if (!packetQueue.isEmpty()) {
-            QueuedPacket queuedPacket = packetQueue.poll();
-            sendPacket(queuedPacket.getPacket(), queuedPacket.getDirection(), queuedPacket.getVersion());
+    /**
+     * Sends packet translated off the event loop, client bound packets sent
+     * after it are held back until it's done
+     *
+     * @param packet Future of packet already translated to client version
+     */
+    public void sendPacketAsync(CompletableFuture<PacketData> packet) {
+        outboundQueue.write(packet);
+    }
+
+    /**
+     * @return Amount of packets still translated off the event loop
+     */
+    public int getPendingAsyncPackets() {
+        return outboundQueue.getPending();
+    }
+
+    /**
+     * Gets translator pipeline for current client version
+     *
+     * @param from Version to start from, can be null
+     * @return {@link ProtocolPipeline} pipeline
+     */
+    private ProtocolPipeline getPipeline(MinecraftVersion from) {
+        if (from == null) {
+            return main.getTranslatorRegistry().getPipeline(userData);
+        }
+
+        MinecraftVersion version = main.getConfiguration().getServerVersion();
+
+        if (from != version) {
+            version = from;
         }
+
+        return main.getTranslatorRegistry().getPipeline(userData, version, from);
     }
 
+    /**
+     * Queues packet to be translated and sent on the next tick
+     *
+     * @param packet    {@link PacketData} Packet
+     * @param direction {@link PacketDirection} sending direction (client/server)
+     * @param version   Version to start from
+     */
     public void queuePacket(PacketData packet, PacketDirection direction, MinecraftVersion version) {
-        packetQueue.add(new QueuedPacket(packet, direction, version));
+        packetQueue.add(packet, direction, version);
+    }
+
+    /**
+     * Starts ticking session on its event loop
+     */
+    public void startTicking() {
+        if (tickTask == null) {
+            tickTask = channel.eventLoop().scheduleAtFixedRate(() -> {
+                try {
+                    tick();
+                } catch (Exception e) {
+                    Logger.error("[{}] exception in tick loop: {}", getLogTag(), e.getMessage());
+                }
+            }, 0L, 50L, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void stopTicking() {
+        if (tickTask != null) {
+            tickTask.cancel(false);
+            tickTask = null;
+        }
     }
 
     @Override
     public void tick() {
-        handleQueuedPackets();
+        TickTimings timings = main.getTickTimings();
+        long tickStart = System.nanoTime();
+
+        packetQueue.drain();
         for (Object o : userData.getProtocolStorage().getSavedObjects().values()) {
             if (o instanceof Tickable) {
+                long start = System.nanoTime();
+
                 ((Tickable) o).tick();
+                timings.record(o.getClass(), System.nanoTime() - start);
             }
         }
 
@@ -206,6 +283,14 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
             packetCounter.set(0);
         }
         currentTick++;
+
+        long tickTime = System.nanoTime() - tickStart;
+        timings.record(ServerSession.class, tickTime);
+
+        if (tickTime > TickTimings.TICK_TIME) {
+            timings.recordOverrun();
+            Logger.warn("[{}] tick took {}ms", getLogTag(), TimeUnit.NANOSECONDS.toMillis(tickTime));
+        }
     }
 
     @Override
@@ -215,6 +300,17 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
         packetCounter.getAndIncrement();
     }
 
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        ClientSession clientSession = getClientSession();
+        if (clientSession != null) {
+            clientSession.flush();
+        }
+
+        flush();
+        super.channelReadComplete(ctx);
+    }
+
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
         if (hasServerPingProtocol()) {
@@ -224,8 +320,16 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
+        stopTicking();
         disconnect();
 
+        if (main.getConfiguration().isDebugMode()) {
+            Logger.debug("[{}] writes per flush: {}", getLogTag(), packetWriter.getWritesPerFlush());
+            Logger.debug("[{}] deferred packets: {} delivered, {} max queued, {} overflowed, {} backlogged ticks",
+                    getLogTag(), packetQueue.getDelivered(), packetQueue.getHighWaterMark(),
+                    packetQueue.getOverflows(), packetQueue.getBackloggedTicks());
+        }
+
         // notify other sessions
         MinecraftVersion server = main.getConfiguration().getServerVersion();
         MinecraftVersion client = userData.getClientVersion();
@@ -233,6 +337,13 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
         // call #onDisconnect only in user protocols
         main.getTranslatorRegistry().getAllProtocolsBetween(server, client).forEach(t -> t.onDisconnect(this));
 
+        // release resources shared with other sessions
+        for (Object o : userData.getProtocolStorage().getSavedObjects().values()) {
+            if (o instanceof Releasable) {
+                ((Releasable) o).release();
+            }
+        }
+
         ClientSession clientSession = getClientSession();
         if (clientSession != null) {
             clientSession.disconnectRemote();
@@ -251,16 +362,33 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
             if (entry != null) {
                 ServerSession serverSession = entry.getServerSession();
                 if (!(serverSession.userData.getClientVersion().getRegistryId() >= from.getRegistryId())) {
-                    return;
+                    break;
                 }
 
-                serverSession.sendPacket(packetData, PacketDirection.TO_CLIENT, from);
+                // every session gets its own copy, translated and released on its own event loop
+                PacketData copy = packetData.copy();
+                EventLoop eventLoop = serverSession.channel.eventLoop();
+
+                if (eventLoop.inEventLoop()) {
+                    serverSession.sendPacket(copy, PacketDirection.TO_CLIENT, from);
+                } else {
+                    eventLoop.execute(() -> serverSession.sendPacket(copy, PacketDirection.TO_CLIENT, from));
+                }
             }
         }
+
+        packetData.release();
     }
 
     private void sendPacket(PacketData packetData) {
-        channel.writeAndFlush(packetData);
+        packetWriter.write(packetData);
+    }
+
+    /**
+     * Flushes packets written to client
+     */
+    public void flush() {
+        packetWriter.flush();
     }
 
     public ClientSession getClientSession() {
@@ -276,8 +404,14 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
             sendDisconnectPacket(message);
         }
 
+        // release raw packets which will never be sent
+        initialPacketQueue.forEach(PacketData::release);
+
         initialPacketQueue.clear();
         packetQueue.clear();
+        outboundQueue.clear();
+
+        flush();
         channel.close();
     }
 
@@ -338,12 +472,4 @@ public class ServerSession extends SimpleChannelInboundHandler<PacketData> imple
     public ProtocolStorage getStorage() {
         return userData.getProtocolStorage();
     }
-
-    @Data
-    @AllArgsConstructor
-    private final static class QueuedPacket {
-        private PacketData packet;
-        private PacketDirection direction;
-        private MinecraftVersion version;
-    }
 }
@@ -29,16 +29,22 @@ import com.github.dirtpowered.dirtmv.data.protocol.io.NettyInputWrapper;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.translator.PacketDirection;
 import com.github.dirtpowered.dirtmv.data.translator.PreNettyProtocolState;
+import com.github.dirtpowered.dirtmv.data.translator.ProtocolPipeline;
+import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
 import com.github.dirtpowered.dirtmv.data.user.UserData;
 import com.github.dirtpowered.dirtmv.data.utils.PacketUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 
 import java.io.IOException;
 import java.util.List;
 
-public class PacketDecoder extends ReplayingDecoder<PacketData> {
+/**
+ * Pre-netty packets are not length prefixed, so whole packet is measured first
+ * and decoded only when all of its bytes are already received
+ */
+public class PacketDecoder extends ByteToMessageDecoder {
     private final PacketDirection packetDirection;
     private final UserData userData;
     private final DirtMultiVersion main;
@@ -51,17 +57,54 @@ public class PacketDecoder extends ReplayingDecoder<PacketData> {
 
     @Override
     protected void decode(ChannelHandlerContext context, ByteBuf buffer, List<Object> list) throws IOException {
+        if (!buffer.isReadable())
+            return;
+
         boolean flag = packetDirection == PacketDirection.TO_CLIENT;
+        int readerIndex = buffer.readerIndex();
 
-        setUserProtocol(flag, buffer);
         PacketInput inputBuffer = new NettyInputWrapper(buffer);
+        int length;
+
+        try {
+            setUserProtocol(flag, buffer);
+            length = PacketUtil.measurePacket(getVersion(flag), inputBuffer);
+        } catch (IndexOutOfBoundsException e) {
+            // wait for the rest of packet
+            return;
+        } finally {
+            buffer.readerIndex(readerIndex);
+        }
+
+        MinecraftVersion version = getVersion(flag);
+        PacketData packet;
 
-        PacketData packet = PacketUtil.readPacket(flag ? main.getConfiguration().getServerVersion() : userData.getClientVersion(), inputBuffer);
+        if (isPassthrough(flag, buffer.getUnsignedByte(readerIndex))) {
+            packet = PacketUtil.readRawPacket(version, buffer, length);
+        } else {
+            packet = PacketUtil.readPacket(version, inputBuffer);
+        }
 
         setProtocolState(packet);
         list.add(packet);
     }
 
+    private MinecraftVersion getVersion(boolean flag) {
+        return flag ? main.getConfiguration().getServerVersion() : userData.getClientVersion();
+    }
+
+    private boolean isPassthrough(boolean flag, int opCode) {
+        // client version is not known yet
+        if (!flag && !userData.isProtocolDetected())
+            return false;
+
+        ProtocolPipeline pipeline = main.getTranslatorRegistry().getPipeline(userData);
+
+        // same state as used by translators
+        ProtocolState state = userData.getClientVersion().isNettyProtocol() ? userData.getProtocolState() : ProtocolState.PRE_NETTY;
+        return state != ProtocolState.HANDSHAKE && pipeline.isPassthrough(packetDirection, state, opCode);
+    }
+
     private void setProtocolState(PacketData data) {
         if (userData.getPreNettyProtocolState() == PreNettyProtocolState.IN_GAME)
             return;
@@ -20,23 +20,32 @@
  * SOFTWARE.
  */
 
+
 package com.github.dirtpowered.dirtmv.network.server.codec;
 
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
+import com.github.dirtpowered.dirtmv.data.protocol.io.NettyOutputWrapper;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.MessageToByteEncoder;
 
-import java.util.List;
+public class PacketEncoder extends MessageToByteEncoder<PacketData> {
+    private final PacketSizeEstimator sizeEstimator = new PacketSizeEstimator();
 
-public class PacketEncoder extends MessageToMessageEncoder<PacketData> {
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, PacketData packetData, boolean preferDirect) {
+        return ctx.alloc().ioBuffer(sizeEstimator.estimate(packetData));
+    }
 
     @Override
-    protected void encode(ChannelHandlerContext channelHandlerContext, PacketData packetData, List<Object> list) throws Exception {
-        ByteBuf packetId = Unpooled.buffer(1);
-        packetId.writeByte(packetData.getOpCode()); // packet ID
+    protected void encode(ChannelHandlerContext channelHandlerContext, PacketData packetData, ByteBuf byteBuf) throws Exception {
+        boolean raw = packetData.isRaw();
+
+        byteBuf.writeByte(packetData.getOpCode()); // packet ID
+        packetData.write(new NettyOutputWrapper(byteBuf));
 
-        list.add(Unpooled.wrappedBuffer(packetId, packetData.toMessage().getBuffer()));
+        if (!raw) {
+            sizeEstimator.record(packetData.getOpCode(), byteBuf.readableBytes());
+        }
     }
-}
\ No newline at end of file
+}
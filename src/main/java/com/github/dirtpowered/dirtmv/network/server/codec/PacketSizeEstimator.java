@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.network.server.codec;
+
+import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
+
+import java.util.Arrays;
+
+/**
+ * Guesses encoded packet size from previously encoded packets with the same id,
+ * so encoder can allocate buffer that fits in one go
+ */
+public class PacketSizeEstimator {
+    private static final int DEFAULT_SIZE = 64;
+    private static final int MAX_HEADER_SIZE = 5;
+
+    private final int[] sizes = new int[256];
+
+    public PacketSizeEstimator() {
+        Arrays.fill(sizes, DEFAULT_SIZE);
+    }
+
+    /**
+     * @param packetData {@link PacketData} packet to encode
+     * @return estimated size of encoded packet (including packet id)
+     */
+    public int estimate(PacketData packetData) {
+        if (packetData.isRaw()) {
+            return packetData.getPayloadSize() + MAX_HEADER_SIZE;
+        }
+
+        int opCode = packetData.getOpCode();
+        return opCode < 0 || opCode >= sizes.length ? DEFAULT_SIZE : sizes[opCode];
+    }
+
+    /**
+     * Updates estimate after packet was encoded. Estimate grows immediately
+     * and shrinks slowly, so buffers are rarely resized
+     *
+     * @param opCode Packet id
+     * @param size   Encoded packet size
+     */
+    public void record(int opCode, int size) {
+        if (opCode < 0 || opCode >= sizes.length) {
+            return;
+        }
+
+        int current = sizes[opCode];
+        sizes[opCode] = size > current ? size : (current * 7 + size) / 8;
+    }
+}
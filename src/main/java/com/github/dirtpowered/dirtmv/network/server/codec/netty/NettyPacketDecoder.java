@@ -28,6 +28,7 @@ import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.io.NettyInputWrapper;
 import com.github.dirtpowered.dirtmv.data.protocol.io.model.PacketInput;
 import com.github.dirtpowered.dirtmv.data.translator.PacketDirection;
+import com.github.dirtpowered.dirtmv.data.translator.ProtocolPipeline;
 import com.github.dirtpowered.dirtmv.data.translator.ProtocolState;
 import com.github.dirtpowered.dirtmv.data.user.UserData;
 import io.netty.buffer.ByteBuf;
@@ -38,6 +39,7 @@ import org.pmw.tinylog.Logger;
 import java.util.List;
 
 import static com.github.dirtpowered.dirtmv.data.utils.PacketUtil.readModernPacket;
+import static com.github.dirtpowered.dirtmv.data.utils.PacketUtil.readRawModernPacket;
 
 public class NettyPacketDecoder extends ByteToMessageDecoder {
 
@@ -72,14 +74,19 @@ public class NettyPacketDecoder extends ByteToMessageDecoder {
             userData.setClientVersion(MinecraftVersion.fromNettyProtocolId(protocol));
         }
 
-        PacketData packet;
+        MinecraftVersion version = flag ? main.getConfiguration().getServerVersion() : userData.getClientVersion();
 
-        if (flag) {
-            packet = readModernPacket(main.getConfiguration().getServerVersion(), protocolState, inputBuffer, packetDirection, i);
-        } else {
-            packet = readModernPacket(userData.getClientVersion(), protocolState, inputBuffer, packetDirection, i);
+        if (protocolState != ProtocolState.HANDSHAKE && isPassthrough(protocolState, i)) {
+            PacketData packet = readRawModernPacket(version, protocolState, byteBuf, packetDirection, i);
+
+            if (packet != null) {
+                list.add(packet);
+                return;
+            }
         }
 
+        PacketData packet = readModernPacket(version, protocolState, inputBuffer, packetDirection, i);
+
         int readableBytes = byteBuf.readableBytes();
 
         if (readableBytes > 0) {
@@ -89,4 +96,12 @@ public class NettyPacketDecoder extends ByteToMessageDecoder {
             list.add(packet);
         }
     }
+
+    private boolean isPassthrough(ProtocolState protocolState, int opCode) {
+        ProtocolPipeline pipeline = main.getTranslatorRegistry().getPipeline(userData);
+
+        // same state as used by translators
+        ProtocolState state = userData.getClientVersion().isNettyProtocol() ? protocolState : ProtocolState.PRE_NETTY;
+        return pipeline.isPassthrough(packetDirection, state, opCode);
+    }
 }
\ No newline at end of file
@@ -2,22 +2,30 @@ package com.github.dirtpowered.dirtmv.network.server.codec.netty;
 
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.io.NettyOutputWrapper;
+import com.github.dirtpowered.dirtmv.network.server.codec.PacketSizeEstimator;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.MessageToByteEncoder;
 
-import java.util.List;
+public class NettyPacketEncoder extends MessageToByteEncoder<PacketData> {
+    private final PacketSizeEstimator sizeEstimator = new PacketSizeEstimator();
 
-public class NettyPacketEncoder extends MessageToMessageEncoder<PacketData> {
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, PacketData packetData, boolean preferDirect) {
+        return ctx.alloc().ioBuffer(sizeEstimator.estimate(packetData));
+    }
 
     @Override
-    protected void encode(ChannelHandlerContext channelHandlerContext, PacketData packetData, List<Object> list) throws Exception {
-        ByteBuf packetId = Unpooled.buffer();
+    protected void encode(ChannelHandlerContext channelHandlerContext, PacketData packetData, ByteBuf byteBuf) throws Exception {
+        boolean raw = packetData.isRaw();
 
-        NettyOutputWrapper outputWrapper = new NettyOutputWrapper(packetId);
+        NettyOutputWrapper outputWrapper = new NettyOutputWrapper(byteBuf);
         outputWrapper.writeVarInt(packetData.getOpCode());
 
-        list.add(Unpooled.wrappedBuffer(packetId, packetData.toMessage().getBuffer()));
+        packetData.write(outputWrapper);
+
+        if (!raw) {
+            sizeEstimator.record(packetData.getOpCode(), byteBuf.readableBytes());
+        }
     }
 }
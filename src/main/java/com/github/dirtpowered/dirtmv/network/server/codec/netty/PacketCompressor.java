@@ -23,19 +23,23 @@
 package com.github.dirtpowered.dirtmv.network.server.codec.netty;
 
 import com.github.dirtpowered.dirtmv.data.protocol.io.NettyOutputWrapper;
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
-import java.util.zip.Deflater;
 
 public class PacketCompressor extends MessageToByteEncoder<ByteBuf> {
     private final int threshold;
-    private final Deflater deflater;
 
     public PacketCompressor(int threshold) {
         this.threshold = threshold;
-        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf byteBuf, boolean preferDirect) {
+        // deflater is writing straight to the backing array
+        return ctx.alloc().heapBuffer(byteBuf.readableBytes() + 5);
     }
 
     @Override
@@ -47,19 +51,9 @@ public class PacketCompressor extends MessageToByteEncoder<ByteBuf> {
             outputWrapper.writeVarInt(0);
             out.writeBytes(byteBuf);
         } else {
-            byte[] bytes = new byte[packetSize];
-            byteBuf.readBytes(bytes);
-
             outputWrapper.writeVarInt(packetSize);
 
-            deflater.setInput(bytes);
-            deflater.finish();
-
-            byte[] compressedData = new byte[packetSize];
-            int compressedSize = deflater.deflate(compressedData);
-
-            out.writeBytes(compressedData, 0, compressedSize);
-            deflater.reset();
+            CompressionService.deflate(byteBuf, out, CompressionService.getPacketCompressionLevel());
         }
     }
-}
\ No newline at end of file
+}
@@ -23,18 +23,18 @@
 package com.github.dirtpowered.dirtmv.network.server.codec.netty;
 
 import com.github.dirtpowered.dirtmv.data.protocol.io.NettyInputWrapper;
+import com.github.dirtpowered.dirtmv.data.utils.CompressionService;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
-import org.pmw.tinylog.Logger;
+import io.netty.handler.codec.DecoderException;
 
 import java.util.List;
 import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
 
 public class PacketDecompressor extends ByteToMessageDecoder {
-    private final Inflater inflater = new Inflater();
+    // same limit as in vanilla
+    private static final int MAX_PACKET_SIZE = 2097152;
 
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, ByteBuf byteBuf, List<Object> list) {
@@ -45,21 +45,24 @@ public class PacketDecompressor extends ByteToMessageDecoder {
         int size = inputWrapper.readVarInt();
 
         if (size == 0) {
-            list.add(byteBuf.readBytes(byteBuf.readableBytes()));
+            list.add(byteBuf.readRetainedSlice(byteBuf.readableBytes()));
         } else {
-            byte[] compressedData = new byte[byteBuf.readableBytes()];
-            byteBuf.readBytes(compressedData);
-            inflater.setInput(compressedData);
+            if (size < 0 || size > MAX_PACKET_SIZE) {
+                throw new DecoderException("Badly compressed packet - size of " + size + " is larger than protocol maximum of " + MAX_PACKET_SIZE);
+            }
+
+            ByteBuf data = channelHandlerContext.alloc().heapBuffer(size, size);
 
-            byte[] data = new byte[size];
             try {
-                inflater.inflate(data);
+                CompressionService.inflate(byteBuf, data, size);
             } catch (DataFormatException e) {
-                Logger.warn("Couldn't decompress packet: {}", e.getMessage());
+                data.release();
+
+                // client and server would be out of sync after skipping a packet
+                throw new DecoderException("Badly compressed packet", e);
             }
 
-            list.add(Unpooled.wrappedBuffer(data));
-            inflater.reset();
+            list.add(data);
         }
     }
-}
\ No newline at end of file
+}
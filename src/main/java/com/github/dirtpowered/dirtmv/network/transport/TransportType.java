@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.network.transport;
+
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
+import lombok.Getter;
+import org.pmw.tinylog.Logger;
+
+/**
+ * Network transport used by both proxy listener and remote server connections.
+ * Transports are ordered by preference
+ */
+public enum TransportType {
+    EPOLL("epoll") {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new EpollEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannel() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getSocketChannel() {
+            return EpollSocketChannel.class;
+        }
+
+        @Override
+        public void applyServerOptions(ServerBootstrap bootstrap, Configuration c) {
+            super.applyServerOptions(bootstrap, c);
+
+            if (c.getTcpFastOpen() > 0) {
+                bootstrap.option(EpollChannelOption.TCP_FASTOPEN, c.getTcpFastOpen());
+            }
+
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, c.isReusePort());
+        }
+
+        @Override
+        public void applyClientOptions(Bootstrap bootstrap, Configuration c) {
+            super.applyClientOptions(bootstrap, c);
+
+            bootstrap.option(EpollChannelOption.TCP_FASTOPEN_CONNECT, c.getTcpFastOpen() > 0);
+        }
+    },
+    IO_URING("io_uring") {
+        @Override
+        public boolean isAvailable() {
+            return IOUring.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new IOUringEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannel() {
+            return IOUringServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getSocketChannel() {
+            return IOUringSocketChannel.class;
+        }
+    },
+    NIO("nio") {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads) {
+            return new NioEventLoopGroup(threads);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> getServerChannel() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> getSocketChannel() {
+            return NioSocketChannel.class;
+        }
+    };
+
+    @Getter
+    private final String name;
+
+    TransportType(String name) {
+        this.name = name;
+    }
+
+    public abstract boolean isAvailable();
+
+    /**
+     * @param threads Number of threads, 0 for netty default
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threads);
+
+    public abstract Class<? extends ServerChannel> getServerChannel();
+
+    public abstract Class<? extends SocketChannel> getSocketChannel();
+
+    /**
+     * Applies socket options to proxy listener
+     */
+    public void applyServerOptions(ServerBootstrap bootstrap, Configuration c) {
+        bootstrap.childOption(ChannelOption.SO_KEEPALIVE, true);
+
+        if (c.getSendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, c.getSendBufferSize());
+        }
+
+        if (c.getReceiveBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, c.getReceiveBufferSize());
+        }
+    }
+
+    /**
+     * Applies socket options to remote server connection
+     */
+    public void applyClientOptions(Bootstrap bootstrap, Configuration c) {
+        bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
+        bootstrap.option(ChannelOption.TCP_NODELAY, true);
+
+        if (c.getSendBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, c.getSendBufferSize());
+        }
+
+        if (c.getReceiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, c.getReceiveBufferSize());
+        }
+    }
+
+    /**
+     * Picks transport from config, falls back to the best available one
+     *
+     * @param name Transport name from config ('auto' to pick the best available)
+     * @return {@link TransportType} transport
+     */
+    public static TransportType select(String name) {
+        for (TransportType type : values()) {
+            if (type.name.equalsIgnoreCase(name)) {
+                if (type.isAvailable()) {
+                    return type;
+                }
+
+                Logger.warn("{} transport is not available on this platform", type.name);
+                break;
+            }
+        }
+
+        for (TransportType type : values()) {
+            if (type.isAvailable()) {
+                return type;
+            }
+        }
+
+        return NIO;
+    }
+}
@@ -64,7 +64,7 @@ public class ProtocolBeta17to14 extends ServerProtocol {
     public void onConnect(ServerSession session) {
         ProtocolStorage storage = session.getStorage();
 
-        storage.set(BlockStorage.class, new BlockStorage(MinecraftVersion.B1_7_3));
+        storage.set(BlockStorage.class, new BlockStorage(MinecraftVersion.B1_7_3, session));
         storage.set(PlayerTabListCache.class, new PlayerTabListCache());
         storage.set(KeepAliveTask.class, new KeepAliveTask(session));
         storage.set(PlayerHealthTracker.class, new PlayerHealthTracker());
@@ -151,6 +151,8 @@ public class ProtocolBeta17to14 extends ServerProtocol {
                 int max = session.getMain().getConfiguration().getMaxOnline();
                 if (max > 100) max = 100; // b1.8 client is rendering tablist grid wrong when above 100
 
+                session.getStorage().get(BlockStorage.class).setDimension(data.read(Type.BYTE, 3));
+
                 return PacketUtil.createPacket(0x01, new TypeHolder[]{
                         data.read(0), // INT - entityId
                         data.read(1), // STRING - empty
@@ -200,6 +202,8 @@ public class ProtocolBeta17to14 extends ServerProtocol {
 
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
+                session.getStorage().get(BlockStorage.class).setDimension(data.read(Type.BYTE, 0));
+
                 return PacketUtil.createPacket(0x09, new TypeHolder[]{
                         data.read(0),
                         set(Type.BYTE, 1),
@@ -405,7 +409,6 @@ public class ProtocolBeta17to14 extends ServerProtocol {
                 }
 
                 BlockStorage blockStorage = session.getStorage().get(BlockStorage.class);
-                boolean reduceBlockStorageMemory = session.getMain().getConfiguration().reduceBlockStorageMemory();
 
                 if (blockStorage != null) {
                     List<BlockLocation> locationList = new ArrayList<>();
@@ -413,7 +416,7 @@ public class ProtocolBeta17to14 extends ServerProtocol {
                         byte[] chunkData = chunk.getChunk();
 
                         for (int x = 0; x < 16; x++) {
-                            for (int y = reduceBlockStorageMemory ? 20 : 0; y < 128; y++) {
+                            for (int y = 0; y < 128; y++) {
                                 for (int z = 0; z < 16; z++) {
                                     int blockId = chunkData[getBlockIndexAt(x, y, z)];
 
@@ -429,6 +432,11 @@ public class ProtocolBeta17to14 extends ServerProtocol {
                             }
                         }
 
+                        if (!locationList.isEmpty()) {
+                            // drops the compressed form kept from the server packet
+                            chunk.setChunk(chunkData);
+                        }
+
                         for (BlockLocation location : locationList) {
                             int x = location.getX();
                             int y = location.getY();
@@ -440,8 +448,6 @@ public class ProtocolBeta17to14 extends ServerProtocol {
                             setNibble(chunkData, x, y, z, (byte) 15, blockLightOffset);
                             sendDelayedBlockUpdate(session, chunk.getX() + x, chunk.getY() + y, chunk.getZ() + z, rotation);
                         }
-
-                        chunk.setChunk(chunkData);
                     } catch (ArrayIndexOutOfBoundsException ignored) {
                     }
                 }
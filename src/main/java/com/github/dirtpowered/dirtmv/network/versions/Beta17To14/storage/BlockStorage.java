@@ -23,31 +23,91 @@
 package com.github.dirtpowered.dirtmv.network.versions.Beta17To14.storage;
 
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.interfaces.Releasable;
+import com.github.dirtpowered.dirtmv.network.server.ServerSession;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import lombok.Getter;
 
-import java.util.Map;
+/**
+ * Cache of interesting blocks sent by server (used by collision, rotation and mining fixes).
+ * Sections are allocated only when they contain a block and use a small palette as long as
+ * they hold at most 16 different ids. With shared world shadow enabled, chunks are stored in
+ * {@link WorldShadow} and this object only keeps track of chunks loaded by its session. Blocks
+ * are kept locally until the session's dimension is known, see {@link #setDimension(int)}
+ */
+public class BlockStorage implements Releasable {
+    private static final int UNKNOWN_WORLD = -1;
 
-public class BlockStorage {
-    private final Map<Long, ChunkPart> blockStorage = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectMap<ChunkPart> blockStorage = new Long2ObjectOpenHashMap<>();
 
     @Getter
     private final MinecraftVersion version;
 
+    // shared world shadow, null if blocks are stored locally
+    private final WorldShadow shadow;
+    private final LongSet loadedChunks = new LongOpenHashSet();
+    private volatile int world = UNKNOWN_WORLD;
+
     public BlockStorage(MinecraftVersion version) {
         this.version = version;
+        this.shadow = null;
+    }
+
+    /**
+     * Creates storage using shared world shadow if it's enabled
+     */
+    public BlockStorage(MinecraftVersion version, ServerSession session) {
+        this.version = version;
+        this.shadow = session.getMain().getWorldShadow();
     }
 
     private long getKey(int chunkX, int chunkZ) {
         return (long) chunkX & 0xffffffffL | ((long) chunkZ & 0xffffffffL) << 32;
     }
 
+    /**
+     * Sets current dimension (login, respawn). Client drops all chunks when changing dimension
+     */
+    public void setDimension(int dimension) {
+        if (shadow == null) {
+            return;
+        }
+
+        int newWorld = WorldShadow.getWorldKey(version.getRegistryId(), dimension);
+
+        synchronized (loadedChunks) {
+            if (newWorld == world) {
+                return;
+            }
+
+            releaseAll();
+            blockStorage.clear();
+
+            world = newWorld;
+        }
+    }
+
     public void removeChunk(int chunkX, int chunkZ) {
-        blockStorage.remove(getKey(chunkX, chunkZ));
+        long key = getKey(chunkX, chunkZ);
+        blockStorage.remove(key);
+
+        if (shadow == null) {
+            return;
+        }
+
+        synchronized (loadedChunks) {
+            if (loadedChunks.remove(key)) {
+                shadow.release(world, key);
+            }
+        }
     }
 
     public int getBlockAt(int x, int y, int z) {
-        ChunkPart part = blockStorage.get(getKey(x >> 4, z >> 4));
+        ChunkPart part = getPart(getKey(x >> 4, z >> 4));
         if (part == null) {
             return 0;
         }
@@ -57,33 +117,160 @@ public class BlockStorage {
 
     public void setBlockAt(int chunkX, int chunkZ, int x, int y, int z, int blockId) {
         long key = getKey(chunkX, chunkZ);
+        ChunkPart part = isShared() ? getSharedPart(key) : blockStorage.get(key);
+
+        if (part == null) {
+            if ((blockId & 255) == 0) {
+                return;
+            }
+
+            part = new ChunkPart();
+            blockStorage.put(key, part);
+        }
+
+        part.setBlock(x & 15, y & 255, z & 15, blockId);
+    }
+
+    /**
+     * Releases chunks held in shared world shadow
+     */
+    @Override
+    public void release() {
+        if (shadow == null) {
+            return;
+        }
 
-        if (blockStorage.get(key) == null) {
-            blockStorage.put(key, new ChunkPart());
+        synchronized (loadedChunks) {
+            releaseAll();
         }
+    }
+
+    private ChunkPart getPart(long key) {
+        int world = this.world;
 
-        blockStorage.get(key).setBlock(x & 15, y & 255, z & 15, blockId);
+        return isShared(world) ? shadow.get(world, key) : blockStorage.get(key);
     }
 
-    private static class ChunkPart {
-        private static final int SIZE_X = 16;
-        private static final int SIZE_Y = 256;
-        private static final int SIZE_Z = 16;
+    private boolean isShared() {
+        return isShared(world);
+    }
 
-        private final byte[] blocks = new byte[SIZE_X * SIZE_Y * SIZE_Z];
+    private boolean isShared(int world) {
+        // chunks from different dimensions would be mixed without knowing the current one
+        return shadow != null && world != UNKNOWN_WORLD;
+    }
 
-        int getBlock(int posX, int posY, int posZ) {
-            if (posX >= 0 && posY >= 0 && posZ >= 0 && posX < SIZE_X && posY < SIZE_Y && posZ < SIZE_Z) {
-                return this.blocks[(posY * SIZE_Z + posZ) * SIZE_X + posX];
-            } else {
-                return 0;
+    private ChunkPart getSharedPart(long key) {
+        synchronized (loadedChunks) {
+            if (loadedChunks.add(key)) {
+                return shadow.acquire(world, key);
             }
+
+            return shadow.get(world, key);
+        }
+    }
+
+    private void releaseAll() {
+        for (LongIterator iterator = loadedChunks.iterator(); iterator.hasNext(); ) {
+            shadow.release(world, iterator.nextLong());
         }
 
-        void setBlock(int posX, int posY, int posZ, int block) {
-            if (posX >= 0 && posY >= 0 && posZ >= 0 && posX < SIZE_X && posY < SIZE_Y && posZ < SIZE_Z) {
-                this.blocks[(posY * SIZE_Z + posZ) * SIZE_X + posX] = (byte) block;
+        loadedChunks.clear();
+    }
+
+    static class ChunkPart {
+        private final Section[] sections = new Section[16];
+
+        synchronized int getBlock(int posX, int posY, int posZ) {
+            Section section = sections[posY >> 4];
+
+            return section == null ? 0 : section.get(posY << 8 & 3840 | posZ << 4 | posX);
+        }
+
+        synchronized void setBlock(int posX, int posY, int posZ, int block) {
+            int id = block & 255;
+            Section section = sections[posY >> 4];
+
+            if (section == null) {
+                if (id == 0) {
+                    return;
+                }
+
+                section = new Section();
+                sections[posY >> 4] = section;
+            }
+
+            section.set(posY << 8 & 3840 | posZ << 4 | posX, id);
+        }
+    }
+
+    private static class Section {
+        private static final int SIZE = 4096;
+
+        // palette index of air is always 0
+        private byte[] palette = new byte[]{0};
+
+        // 4-bit palette indexes, replaced by raw ids once palette is full
+        private byte[] indexes = new byte[SIZE >> 1];
+        private byte[] ids;
+
+        int get(int index) {
+            if (ids != null) {
+                return ids[index] & 255;
+            }
+
+            int nibble = indexes[index >> 1] >> ((index & 1) << 2) & 15;
+            return palette[nibble] & 255;
+        }
+
+        void set(int index, int id) {
+            if (ids != null) {
+                ids[index] = (byte) id;
+                return;
+            }
+
+            int paletteIndex = getPaletteIndex(id);
+
+            if (paletteIndex == -1) {
+                if (palette.length < 16) {
+                    paletteIndex = palette.length;
+
+                    byte[] newPalette = new byte[palette.length + 1];
+                    System.arraycopy(palette, 0, newPalette, 0, palette.length);
+                    newPalette[paletteIndex] = (byte) id;
+
+                    palette = newPalette;
+                } else {
+                    resize();
+
+                    ids[index] = (byte) id;
+                    return;
+                }
+            }
+
+            int shift = (index & 1) << 2;
+            indexes[index >> 1] = (byte) (indexes[index >> 1] & ~(15 << shift) | paletteIndex << shift);
+        }
+
+        private int getPaletteIndex(int id) {
+            for (int i = 0; i < palette.length; i++) {
+                if ((palette[i] & 255) == id) {
+                    return i;
+                }
             }
+
+            return -1;
+        }
+
+        private void resize() {
+            ids = new byte[SIZE];
+
+            for (int i = 0; i < SIZE; i++) {
+                ids[i] = palette[indexes[i >> 1] >> ((i & 1) << 2) & 15];
+            }
+
+            palette = null;
+            indexes = null;
         }
     }
 }
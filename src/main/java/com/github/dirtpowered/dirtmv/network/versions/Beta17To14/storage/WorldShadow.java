@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.github.dirtpowered.dirtmv.network.versions.Beta17To14.storage;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.Getter;
+
+/**
+ * Proxy-wide block cache shared by all players. Chunks are reference counted by sessions
+ * which have them loaded, so memory scales with world area instead of players
+ */
+public class WorldShadow {
+    // power of two, every segment has its own lock
+    private static final int SEGMENTS = 16;
+
+    private final Long2ObjectMap<Entry>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public WorldShadow() {
+        segments = new Long2ObjectMap[SEGMENTS];
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Long2ObjectOpenHashMap<>();
+        }
+    }
+
+    /**
+     * @param world World key, see {@link #getWorldKey(int, int)}
+     * @param key   Chunk key
+     * @return Chunk part or null if no session has it loaded
+     */
+    BlockStorage.ChunkPart get(int world, long key) {
+        long shadowKey = getShadowKey(world, key);
+        Long2ObjectMap<Entry> chunks = getSegment(shadowKey);
+
+        synchronized (chunks) {
+            Entry entry = chunks.get(shadowKey);
+
+            return entry == null ? null : entry.getPart();
+        }
+    }
+
+    BlockStorage.ChunkPart acquire(int world, long key) {
+        long shadowKey = getShadowKey(world, key);
+        Long2ObjectMap<Entry> chunks = getSegment(shadowKey);
+
+        synchronized (chunks) {
+            Entry entry = chunks.get(shadowKey);
+
+            if (entry == null) {
+                entry = new Entry();
+                chunks.put(shadowKey, entry);
+            }
+
+            entry.references++;
+            return entry.getPart();
+        }
+    }
+
+    void release(int world, long key) {
+        long shadowKey = getShadowKey(world, key);
+        Long2ObjectMap<Entry> chunks = getSegment(shadowKey);
+
+        synchronized (chunks) {
+            Entry entry = chunks.get(shadowKey);
+
+            if (entry != null && --entry.references <= 0) {
+                chunks.remove(shadowKey);
+            }
+        }
+    }
+
+    /**
+     * @return Amount of chunks held by all sessions
+     */
+    public int getSize() {
+        int size = 0;
+
+        for (Long2ObjectMap<Entry> chunks : segments) {
+            synchronized (chunks) {
+                size += chunks.size();
+            }
+        }
+
+        return size;
+    }
+
+    static int getWorldKey(int versionId, int dimension) {
+        return versionId << 8 | dimension & 255;
+    }
+
+    private Long2ObjectMap<Entry> getSegment(long shadowKey) {
+        return segments[(int) HashCommon.mix(shadowKey) & SEGMENTS - 1];
+    }
+
+    private static long getShadowKey(int world, long key) {
+        // 24 bits per chunk coordinate are enough for 30 million blocks world border
+        return (long) (world & 0xffff) << 48 | (key & 0xffffffL) << 24 | key >>> 32 & 0xffffffL;
+    }
+
+    private static class Entry {
+        @Getter
+        private final BlockStorage.ChunkPart part = new BlockStorage.ChunkPart();
+        private int references;
+    }
+}
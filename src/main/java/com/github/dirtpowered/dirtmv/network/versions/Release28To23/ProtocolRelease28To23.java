@@ -165,10 +165,8 @@ public class ProtocolRelease28To23 extends ServerProtocol {
                         int blockId = blockArray.getTypesArray()[i] & 255;
                         int blockData = blockArray.getMetadataArray()[i];
 
-                        Block replacement = blockDataTransformer.replaceBlock(blockId, blockData);
-
                         dataOutputStream.writeShort(coordinate);
-                        dataOutputStream.writeShort((short) ((replacement.getBlockId() & 4095) << 4 | replacement.getBlockData() & 15));
+                        dataOutputStream.writeShort(blockDataTransformer.remapBlock(blockId, blockData));
                     }
 
                     byte[] b = byteArrayOutputStream.toByteArray();
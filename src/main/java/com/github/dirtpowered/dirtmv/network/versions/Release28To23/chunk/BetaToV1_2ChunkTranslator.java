@@ -24,7 +24,9 @@ package com.github.dirtpowered.dirtmv.network.versions.Release28To23.chunk;
 
 import com.github.dirtpowered.dirtmv.api.Configuration;
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.chunk.ChunkCache;
 import com.github.dirtpowered.dirtmv.data.chunk.biome.OldChunkData;
+import com.github.dirtpowered.dirtmv.data.chunk.storage.BetaChunkTransposer;
 import com.github.dirtpowered.dirtmv.data.chunk.storage.V1_2RChunkStorage;
 import com.github.dirtpowered.dirtmv.data.chunk.storage.V1_3BChunkStorage;
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
@@ -33,7 +35,6 @@ import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.V1_2Chunk;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.V1_2MultiBlockArray;
 import com.github.dirtpowered.dirtmv.data.protocol.objects.V1_3BChunk;
-import com.github.dirtpowered.dirtmv.data.transformers.block.Block;
 import com.github.dirtpowered.dirtmv.data.transformers.block.ItemBlockDataTransformer;
 import com.github.dirtpowered.dirtmv.data.translator.PacketDirection;
 import com.github.dirtpowered.dirtmv.data.translator.PacketTranslator;
@@ -41,21 +42,32 @@ import com.github.dirtpowered.dirtmv.data.translator.ServerProtocol;
 import com.github.dirtpowered.dirtmv.data.user.ProtocolStorage;
 import com.github.dirtpowered.dirtmv.data.utils.PacketUtil;
 import com.github.dirtpowered.dirtmv.network.server.ServerSession;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
+import io.netty.util.concurrent.FastThreadLocal;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class BetaToV1_2ChunkTranslator extends PacketTranslator {
 
     private static final int BLOCK_CHANGE_CHUNK_SIZE = 128;
     private static final int MAX_SINGLE_BLOCK_UPDATE_PACKETS = 8;
+    private static final int CHUNK_STORAGE_WEIGHT = 16 * 10240 + 256;
+
+    // full chunk overwrites whole storage, so every thread reuses one for full chunks
+    private static final FastThreadLocal<V1_3BChunkStorage> OLD_CHUNK_STORAGE = new FastThreadLocal<V1_3BChunkStorage>() {
+
+        @Override
+        protected V1_3BChunkStorage initialValue() {
+            return new V1_3BChunkStorage(0, 0);
+        }
+    };
+
     private final ItemBlockDataTransformer blockDataTransformer;
 
     public BetaToV1_2ChunkTranslator(ItemBlockDataTransformer blockDataTransformer) {
@@ -82,62 +94,32 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
         int chunkZ = oldChunk.getZ() >> 4;
 
         if (groundUp) {
-            V1_3BChunkStorage oldChunkStorage = new V1_3BChunkStorage(chunkX, chunkZ);
-            V1_2RChunkStorage newChunkStorage = new V1_2RChunkStorage(hasSkylight, true, chunkX, chunkZ);
-
-            oldChunkStorage.setChunkData(
-                    oldChunk.getChunk(),
-                    oldChunk.getX(),
-                    oldChunk.getY(),
-                    oldChunk.getZ(),
-                    oldChunk.getXSize(),
-                    oldChunk.getYSize(),
-                    oldChunk.getZSize(),
-                    0,
-                    true
-            );
+            ChunkCache chunkCache = session.getMain().getChunkCache();
 
-            for (int x = 0; x < 16; x++) {
-                for (int y = 0; y < 128; y++) {
-                    for (int z = 0; z < 16; z++) {
-                        int oldBlockId = oldChunkStorage.getBlockId(x, y, z);
-                        int oldBlockData = oldChunkStorage.getBlockData(x, y, z);
+            int dimension = dimensionTracker.getDimension();
+            byte[] source = oldChunk.hasCompressedData() ? oldChunk.getCompressedChunk() : null;
 
-                        Block replacement = blockDataTransformer.replaceBlock(oldBlockId, oldBlockData);
+            V1_2Chunk chunk = chunkCache.get(MinecraftVersion.R1_2_1, dimension, chunkX, chunkZ, 0, source);
 
-                        newChunkStorage.setBlockId(x, y, z, replacement.getBlockId());
-                        newChunkStorage.setBlockMetadata(x, y, z, replacement.getBlockData());
-                        newChunkStorage.setBlockLight(x, y, z, oldChunkStorage.getBlockLight(x, y, z));
-                        if (hasSkylight) {
-                            newChunkStorage.setSkyLight(x, y, z, oldChunkStorage.getSkyLight(x, y, z));
-                        }
-                    }
-                }
-            }
-            byte[] biomes = new byte[256];
+            if (chunk == null) {
+                chunk = translateChunk(storage, oldChunk, chunkX, chunkZ, hasSkylight);
 
-            if (storage.hasObject(OldChunkData.class)) {
-                OldChunkData biomeData = storage.get(OldChunkData.class);
-                biomes = biomeData.getBiomeDataAt(chunkX, chunkZ, !hasSkylight);
-            } else {
-                Arrays.fill(biomes, (byte) 0x04); // forest
+                chunkCache.put(MinecraftVersion.R1_2_1, dimension, chunkX, chunkZ, 0, source,
+                        chunk, chunk.getUncompressedData().length + CHUNK_STORAGE_WEIGHT);
             }
 
-            newChunkStorage.setBiomeData(biomes);
-
-            byte[] compressedData = newChunkStorage.getCompressedData(true, 0xff);
-
+            // cached chunk is shared, every packet gets its own copy
             session.sendPacket(PacketUtil.createPacket(0x33, new TypeHolder[]{
                     new TypeHolder(Type.V1_2_CHUNK, new V1_2Chunk(
                             chunkX,
                             chunkZ,
                             true,
-                            (short) newChunkStorage.getPrimaryBitmap(),
+                            chunk.getPrimaryBitmap(),
                             (short) 0,
-                            newChunkStorage.getCompressedSize(),
-                            compressedData,
-                            new byte[0],
-                            newChunkStorage
+                            0,
+                            null,
+                            chunk.getUncompressedData(),
+                            chunk.getStorage()
                     ))
             }), PacketDirection.TO_CLIENT, MinecraftVersion.R1_2_1);
 
@@ -152,7 +134,7 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
             boolean replaceChests = session.getUserData()
                     .getClientVersion().getRegistryId() >= 39 && c.replaceChests();
 
-            List<WorldBlock> worldBlocks = getUpdatedBlockList(
+            UpdatedBlocks worldBlocks = getUpdatedBlockList(
                     oldChunk.getX(),
                     oldChunk.getY(),
                     oldChunk.getZ(),
@@ -165,30 +147,30 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
 
             int records = worldBlocks.size();
 
-            if (worldBlocks.isEmpty()) {
+            if (records == 0) {
                 return ServerProtocol.cancel();
             }
 
-            List<List<WorldBlock>> slicedList = getSlicedData(worldBlocks);
-
             if (records > MAX_SINGLE_BLOCK_UPDATE_PACKETS) {
-                for (List<WorldBlock> slicedData : slicedList) {
-                    chunkX = slicedData.get(0).getX() >> 4;
-                    chunkZ = slicedData.get(0).getZ() >> 4;
+                for (int start = 0; start < records; start += BLOCK_CHANGE_CHUNK_SIZE) {
+                    int end = Math.min(start + BLOCK_CHANGE_CHUNK_SIZE, records);
 
-                    int totalDataSize = 4 * slicedData.size();
+                    chunkX = worldBlocks.getX(start) >> 4;
+                    chunkZ = worldBlocks.getZ(start) >> 4;
+
+                    int totalDataSize = 4 * (end - start);
 
                     ByteArrayOutputStream baos = new ByteArrayOutputStream(totalDataSize);
                     DataOutputStream dos = new DataOutputStream(baos);
                     V1_2MultiBlockArray blockArray = null;
                     try {
-                        for (WorldBlock record : slicedData) {
-                            dos.writeShort((record.getX() - (chunkX << 4)) << 12 | (record.getZ() - (chunkZ << 4)) << 8 | record.getY());
-                            dos.writeShort((record.getBlockId() & 4095) << 4 | record.getBlockData() & 15);
+                        for (int i = start; i < end; i++) {
+                            dos.writeShort((worldBlocks.getX(i) - (chunkX << 4)) << 12 | (worldBlocks.getZ(i) - (chunkZ << 4)) << 8 | worldBlocks.getY(i));
+                            dos.writeShort(worldBlocks.getBlock(i));
                         }
 
                         byte[] bytes = baos.toByteArray();
-                        blockArray = new V1_2MultiBlockArray(slicedData.size(), bytes.length, bytes);
+                        blockArray = new V1_2MultiBlockArray(end - start, bytes.length, bytes);
 
                         dos.close();
                     } catch (IOException e) {
@@ -204,13 +186,15 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
                     session.sendPacket(multiBlockChange, PacketDirection.TO_CLIENT, MinecraftVersion.R1_2_1);
                 }
             } else {
-                for (WorldBlock block : worldBlocks) {
+                for (int i = 0; i < records; i++) {
+                    int block = worldBlocks.getBlock(i);
+
                     PacketData blockUpdate = PacketUtil.createPacket(0x35, new TypeHolder[]{
-                            new TypeHolder(Type.INT, block.getX()),
-                            new TypeHolder(Type.BYTE, (byte) block.getY()),
-                            new TypeHolder(Type.INT, block.getZ()),
-                            new TypeHolder(Type.BYTE, (byte) block.getBlockId()),
-                            new TypeHolder(Type.BYTE, (byte) block.getBlockData())
+                            new TypeHolder(Type.INT, worldBlocks.getX(i)),
+                            new TypeHolder(Type.BYTE, (byte) worldBlocks.getY(i)),
+                            new TypeHolder(Type.INT, worldBlocks.getZ(i)),
+                            new TypeHolder(Type.BYTE, (byte) (block >> 4)),
+                            new TypeHolder(Type.BYTE, (byte) (block & 15))
                     });
 
                     session.sendPacket(blockUpdate, PacketDirection.TO_CLIENT, MinecraftVersion.R1_2_1);
@@ -221,8 +205,53 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
         return ServerProtocol.cancel();
     }
 
-    private List<WorldBlock> getUpdatedBlockList(int x, int y, int z, int xSize, int ySize, int zSize, byte[] packetData, boolean replaceChests) {
-        List<WorldBlock> worldBlocks = new ArrayList<>();
+    private V1_2Chunk translateChunk(ProtocolStorage storage, V1_3BChunk oldChunk, int chunkX, int chunkZ, boolean hasSkylight) {
+        V1_3BChunkStorage oldChunkStorage = OLD_CHUNK_STORAGE.get();
+        V1_2RChunkStorage newChunkStorage = new V1_2RChunkStorage(hasSkylight, true, chunkX, chunkZ);
+
+        oldChunkStorage.setChunkData(
+                oldChunk.getChunk(),
+                oldChunk.getX(),
+                oldChunk.getY(),
+                oldChunk.getZ(),
+                oldChunk.getXSize(),
+                oldChunk.getYSize(),
+                oldChunk.getZSize(),
+                0,
+                true
+        );
+
+        BetaChunkTransposer.transpose(oldChunkStorage, newChunkStorage, blockDataTransformer);
+
+        byte[] biomes = new byte[256];
+
+        if (storage.hasObject(OldChunkData.class)) {
+            OldChunkData biomeData = storage.get(OldChunkData.class);
+            biomes = biomeData.getBiomeDataAt(chunkX, chunkZ, !hasSkylight);
+        } else {
+            Arrays.fill(biomes, (byte) 0x04); // forest
+        }
+
+        newChunkStorage.setBiomeData(biomes);
+
+        // compressed only if the chunk actually leaves the proxy in this form
+        byte[] chunkData = newChunkStorage.getUncompressedData(true, 0xff);
+
+        return new V1_2Chunk(
+                chunkX,
+                chunkZ,
+                true,
+                (short) newChunkStorage.getPrimaryBitmap(),
+                (short) 0,
+                0,
+                null,
+                chunkData,
+                newChunkStorage
+        );
+    }
+
+    private UpdatedBlocks getUpdatedBlockList(int x, int y, int z, int xSize, int ySize, int zSize, byte[] packetData, boolean replaceChests) {
+        UpdatedBlocks worldBlocks = new UpdatedBlocks();
 
         int chunkX = x >> 4;
         int chunkZ = z >> 4;
@@ -257,8 +286,8 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
                                 oldBlockData = 2;
                             }
 
-                            Block b = blockDataTransformer.replaceBlock(oldBlockId, oldBlockData);
-                            worldBlocks.add(new WorldBlock(x + (posX - startX), posY, z + (posZ - startZ), b.getBlockId(), b.getBlockData()));
+                            int block = blockDataTransformer.remapBlock(oldBlockId, oldBlockData);
+                            worldBlocks.add(x + (posX - startX), posY, z + (posZ - startZ), block);
                         }
                     }
                 }
@@ -268,29 +297,36 @@ public class BetaToV1_2ChunkTranslator extends PacketTranslator {
         return worldBlocks;
     }
 
-    private List<List<WorldBlock>> getSlicedData(List<WorldBlock> blockArray) {
-        List<List<WorldBlock>> slicedList = new ArrayList<>();
+    /**
+     * Changed blocks stored in primitive lists, positions packed the same way as in r1.8
+     */
+    private static class UpdatedBlocks {
+        private final LongList positions = new LongArrayList();
+        private final IntList blocks = new IntArrayList();
 
-        AtomicInteger i = new AtomicInteger();
+        void add(int x, int y, int z, int block) {
+            positions.add(((long) x & 0x3FFFFFF) << 38 | ((long) y & 0xFFF) << 26 | (long) z & 0x3FFFFFF);
+            blocks.add(block);
+        }
 
-        for (WorldBlock worldBlock : blockArray) {
-            if (i.getAndIncrement() % BLOCK_CHANGE_CHUNK_SIZE == 0) {
-                slicedList.add(new ArrayList<>());
-            }
+        int size() {
+            return blocks.size();
+        }
 
-            slicedList.get(slicedList.size() - 1).add(worldBlock);
+        int getX(int index) {
+            return (int) (positions.getLong(index) >> 38);
         }
 
-        return slicedList;
-    }
+        int getY(int index) {
+            return (int) (positions.getLong(index) >> 26 & 4095);
+        }
+
+        int getZ(int index) {
+            return (int) (positions.getLong(index) << 38 >> 38);
+        }
 
-    @Getter
-    @AllArgsConstructor
-    private static class WorldBlock {
-        private final int x;
-        private final int y;
-        private final int z;
-        private final int blockId;
-        private final int blockData;
+        int getBlock(int index) {
+            return blocks.getInt(index);
+        }
     }
 }
@@ -73,7 +73,7 @@ public class ProtocolRelease39To29 extends ServerProtocol {
         storage.set(OpenChestTracker.class, new OpenChestTracker());
 
         if (!storage.hasObject(BlockStorage.class)) {
-            storage.set(BlockStorage.class, new BlockStorage(MinecraftVersion.R1_2_4));
+            storage.set(BlockStorage.class, new BlockStorage(MinecraftVersion.R1_2_4, session));
         }
     }
 
@@ -199,6 +199,7 @@ public class ProtocolRelease39To29 extends ServerProtocol {
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
                 session.getUserData().setEntityId(data.read(Type.INT, 0));
+                session.getStorage().get(BlockStorage.class).setDimension(data.read(Type.INT, 4));
 
                 return PacketUtil.createPacket(0x01, new TypeHolder[]{
                         data.read(0),
@@ -212,6 +213,17 @@ public class ProtocolRelease39To29 extends ServerProtocol {
             }
         });
 
+        // respawn
+        addTranslator(0x09, PacketDirection.TO_CLIENT, new PacketTranslator() {
+
+            @Override
+            public PacketData translate(ServerSession session, PacketData data) {
+                session.getStorage().get(BlockStorage.class).setDimension(data.read(Type.INT, 0));
+
+                return data;
+            }
+        });
+
         // tab command complete
         addTranslator(0xCB, PacketDirection.TO_SERVER, new PacketTranslator() {
 
@@ -263,12 +263,16 @@ public class EntityPackets extends ServerProtocol {
                 // seems that client overwrites old tab packet after sending a new one
                 session.sendPacket(tabEntry, PacketDirection.TO_CLIENT, getFrom());
 
+                // both packets are released before profile is fetched
+                PacketData originalSpawn = data.copy();
+                PacketData delayedSpawn = playerSpawn.copy();
+
                 // send player spawn (right after tablist packet)
                 session.sendPacket(playerSpawn, PacketDirection.TO_CLIENT, getFrom());
 
                 // apply skin
                 GameProfileFetcher.getProfile(username).whenComplete((gameProfile, throwable) -> {
-                    refreshPlayerProfile(session, gameProfile, data, playerSpawn);
+                    refreshPlayerProfile(session, gameProfile, originalSpawn, delayedSpawn);
                 });
 
                 return cancel();
@@ -49,9 +49,10 @@ public class MovementPackets extends ServerProtocol {
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
 
-                return PacketUtil.createPacket(0x14, new TypeHolder[]{
-                        set(Type.VAR_INT, data.read(Type.INT, 0))
-                });
+                PacketData entity = PacketUtil.createPacket(0x14, Type.VAR_INT);
+                entity.writeInt(0, data.readInt(0));
+
+                return entity;
             }
         });
 
@@ -61,21 +62,23 @@ public class MovementPackets extends ServerProtocol {
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
                 OnGroundTracker groundTracker = session.getUserData().getProtocolStorage().get(OnGroundTracker.class);
-                int entityId = data.read(Type.INT, 0);
+                int entityId = data.readInt(0);
 
-                double y = data.read(Type.BYTE, 2) / 32.0D;
+                double y = data.readByte(2) / 32.0D;
                 boolean onGround = !(y < 0.0D);
 
                 if (groundTracker != null) {
                     groundTracker.setGroundStateFor(entityId, onGround);
                 }
-                return PacketUtil.createPacket(0x15, new TypeHolder[]{
-                        set(Type.VAR_INT, data.read(Type.INT, 0)),
-                        data.read(1),
-                        data.read(2),
-                        data.read(3),
-                        set(Type.BOOLEAN, onGround)
-                });
+
+                PacketData relativeMove = PacketUtil.createPacket(0x15, Type.VAR_INT, Type.BYTE, Type.BYTE, Type.BYTE, Type.BOOLEAN);
+
+                relativeMove.writeInt(0, entityId);
+                relativeMove.writeByte(1, data.readByte(1));
+                relativeMove.writeByte(2, data.readByte(2));
+                relativeMove.writeByte(3, data.readByte(3));
+                relativeMove.writeBoolean(4, onGround);
+                return relativeMove;
             }
         });
 
@@ -85,19 +88,21 @@ public class MovementPackets extends ServerProtocol {
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
                 OnGroundTracker groundTracker = session.getUserData().getProtocolStorage().get(OnGroundTracker.class);
-                int entityId = data.read(Type.INT, 0);
+                int entityId = data.readInt(0);
 
                 boolean onGround = false;
 
                 if (groundTracker != null) {
                     onGround = groundTracker.isOnGround(entityId);
                 }
-                return PacketUtil.createPacket(0x16, new TypeHolder[]{
-                        set(Type.VAR_INT, data.read(Type.INT, 0)),
-                        data.read(1),
-                        data.read(2),
-                        set(Type.BOOLEAN, onGround)
-                });
+
+                PacketData look = PacketUtil.createPacket(0x16, Type.VAR_INT, Type.BYTE, Type.BYTE, Type.BOOLEAN);
+
+                look.writeInt(0, entityId);
+                look.writeByte(1, data.readByte(1));
+                look.writeByte(2, data.readByte(2));
+                look.writeBoolean(3, onGround);
+                return look;
             }
         });
 
@@ -107,23 +112,24 @@ public class MovementPackets extends ServerProtocol {
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
                 OnGroundTracker groundTracker = session.getUserData().getProtocolStorage().get(OnGroundTracker.class);
-                int entityId = data.read(Type.INT, 0);
+                int entityId = data.readInt(0);
 
-                double y = data.read(Type.BYTE, 2) / 32.0D;
+                double y = data.readByte(2) / 32.0D;
                 boolean onGround = !(y < 0.0D);
 
                 if (groundTracker != null) {
                     groundTracker.setGroundStateFor(entityId, onGround);
                 }
-                return PacketUtil.createPacket(0x17, new TypeHolder[]{
-                        set(Type.VAR_INT, data.read(Type.INT, 0)),
-                        data.read(1),
-                        data.read(2),
-                        data.read(3),
-                        data.read(4),
-                        data.read(5),
-                        set(Type.BOOLEAN, onGround)
-                });
+
+                PacketData lookMove = PacketUtil.createPacket(0x17, Type.VAR_INT, Type.BYTE, Type.BYTE, Type.BYTE, Type.BYTE, Type.BYTE, Type.BOOLEAN);
+                lookMove.writeInt(0, entityId);
+
+                for (int i = 1; i < 6; i++) {
+                    lookMove.writeByte(i, data.readByte(i));
+                }
+
+                lookMove.writeBoolean(6, onGround);
+                return lookMove;
             }
         });
 
@@ -134,18 +140,19 @@ public class MovementPackets extends ServerProtocol {
             public PacketData translate(ServerSession session, PacketData data) {
                 ProtocolStorage storage = session.getStorage();
                 OnGroundTracker groundTracker = storage.get(OnGroundTracker.class);
-                int entityId = data.read(Type.INT, 0);
+                int entityId = data.readInt(0);
                 boolean onGround = groundTracker.isOnGround(entityId);
 
-                return PacketUtil.createPacket(0x18, new TypeHolder[]{
-                        set(Type.VAR_INT, data.read(Type.INT, 0)),
-                        data.read(1),
-                        data.read(2),
-                        data.read(3),
-                        data.read(4),
-                        data.read(5),
-                        set(Type.BOOLEAN, onGround)
-                });
+                PacketData teleport = PacketUtil.createPacket(0x18, Type.VAR_INT, Type.INT, Type.INT, Type.INT, Type.BYTE, Type.BYTE, Type.BOOLEAN);
+
+                teleport.writeInt(0, entityId);
+                teleport.writeInt(1, data.readInt(1));
+                teleport.writeInt(2, data.readInt(2));
+                teleport.writeInt(3, data.readInt(3));
+                teleport.writeByte(4, data.readByte(4));
+                teleport.writeByte(5, data.readByte(5));
+                teleport.writeBoolean(6, onGround);
+                return teleport;
             }
         });
 
@@ -155,10 +162,11 @@ public class MovementPackets extends ServerProtocol {
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
 
-                return PacketUtil.createPacket(0x19, new TypeHolder[]{
-                        set(Type.VAR_INT, data.read(Type.INT, 0)),
-                        data.read(1),
-                });
+                PacketData headLook = PacketUtil.createPacket(0x19, Type.VAR_INT, Type.BYTE);
+
+                headLook.writeInt(0, data.readInt(0));
+                headLook.writeByte(1, data.readByte(1));
+                return headLook;
             }
         });
 
@@ -23,6 +23,7 @@
 package com.github.dirtpowered.dirtmv.network.versions.Release47To5;
 
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.chunk.ChunkCache;
 import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
 import com.github.dirtpowered.dirtmv.data.protocol.Type;
 import com.github.dirtpowered.dirtmv.data.protocol.TypeHolder;
@@ -55,6 +56,7 @@ import com.github.dirtpowered.dirtmv.network.server.codec.netty.PacketCompressor
 import com.github.dirtpowered.dirtmv.network.server.codec.netty.PacketDecompressor;
 import com.github.dirtpowered.dirtmv.network.versions.Beta17To14.storage.BlockStorage;
 import com.github.dirtpowered.dirtmv.network.versions.Release28To23.chunk.DimensionTracker;
+import com.github.dirtpowered.dirtmv.network.versions.Release47To5.chunk.ChunkBulkWorker;
 import com.github.dirtpowered.dirtmv.network.versions.Release47To5.chunk.DataFixers;
 import com.github.dirtpowered.dirtmv.network.versions.Release47To5.chunk.PortalFrameCache;
 import com.github.dirtpowered.dirtmv.network.versions.Release47To5.chunk.V1_3ToV1_8ChunkTranslator;
@@ -81,7 +83,11 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class ProtocolRelease47To5 extends ServerProtocol {
 
@@ -105,7 +111,14 @@ public class ProtocolRelease47To5 extends ServerProtocol {
         storage.set(QuickBarTracker.class, new QuickBarTracker());
 
         // additional block storage (for nether portal rotation fix)
-        storage.set(PortalFrameCache.class, new PortalFrameCache());
+        storage.set(PortalFrameCache.class, new PortalFrameCache(session));
+
+        // chunk bulks are translated on worker pool
+        ForkJoinPool chunkWorkerPool = session.getMain().getChunkWorkerPool();
+        if (chunkWorkerPool != null) {
+            int maxBulks = session.getMain().getConfiguration().getChunkWorkerMaxBulks();
+            storage.set(ChunkBulkWorker.class, new ChunkBulkWorker(chunkWorkerPool, session.getChannel().eventLoop(), maxBulks));
+        }
 
         if (session.getMain().getConfiguration().enableViaVersion()) {
             // it's not needed for 1.8->1.7, but ViaVersion will need that to fix issues
@@ -148,6 +161,58 @@ public class ProtocolRelease47To5 extends ServerProtocol {
         );
     }
 
+    private int getDimension(ServerSession session) {
+        ProtocolStorage storage = session.getStorage();
+
+        if (storage.hasObject(DimensionTracker.class)) {
+            return storage.get(DimensionTracker.class).getDimension();
+        }
+
+        return 0;
+    }
+
+    /**
+     * Translates single chunk bulk column
+     *
+     * @param session Session, null when called off the event loop
+     * @return Translated column, null if column needs session to be translated
+     */
+    private byte[] translateBulkColumn(ServerSession session, ChunkCache chunkCache, int dimension,
+                                       int chunkX, int chunkZ, int bitmap, byte[] source, boolean skyLight) {
+        // bulk columns are stored decompressed, so they are keyed by their raw data
+        byte[] chunkData = chunkCache.get(MinecraftVersion.R1_8, dimension, chunkX, chunkZ, bitmap, source);
+
+        if (chunkData != null) {
+            return chunkData;
+        }
+
+        V1_3ToV1_8ChunkTranslator chunkTransformer = new V1_3ToV1_8ChunkTranslator(session, source, bitmap, skyLight, true);
+        chunkData = chunkTransformer.getChunkData();
+
+        if (!chunkTransformer.hasPortalBlocks()) {
+            chunkCache.put(MinecraftVersion.R1_8, dimension, chunkX, chunkZ, bitmap, source, chunkData, chunkData.length);
+        }
+
+        return chunkData;
+    }
+
+    private PacketData createChunkBulk(V1_3_4ChunkBulk oldChunkBulk, byte[][] columns) {
+        V1_8ChunkBulk.Chunk[] chunks = new V1_8ChunkBulk.Chunk[columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            chunks[i] = new V1_8ChunkBulk.Chunk();
+
+            chunks[i].setData(columns[i]);
+            chunks[i].setDataSize(oldChunkBulk.getPrimaryBitmaps()[i]);
+        }
+
+        V1_8ChunkBulk chunkBulk = new V1_8ChunkBulk(oldChunkBulk.isSkylight(), oldChunkBulk.getColumnX(), oldChunkBulk.getColumnZ(), chunks);
+
+        return PacketUtil.createPacket(0x26, new TypeHolder[]{
+                set(Type.V1_8R_CHUNK_BULK, chunkBulk)
+        });
+    }
+
     private BlockLocation fromBlockPosition(long encodedPosition) {
         int x = (int) (encodedPosition >> 38);
         int y = (int) ((encodedPosition >> 26) & 4095);
@@ -299,22 +364,36 @@ public class ProtocolRelease47To5 extends ServerProtocol {
                     });
                 }
 
-                V1_3ToV1_8ChunkTranslator chunkTransformer;
+                byte[] chunkData;
                 if (chunk.getStorage() != null) {
                     // use existing chunk storage (pre 1.2 servers)
-                    chunkTransformer = new V1_3ToV1_8ChunkTranslator(session, chunk.getStorage(), groundUp, bitmap);
+                    chunkData = new V1_3ToV1_8ChunkTranslator(session, chunk.getStorage(), groundUp, bitmap).getChunkData();
                 } else {
-                    ProtocolStorage storage = session.getStorage();
+                    int dimension = getDimension(session);
+                    boolean skyLight = dimension == 0;
+
+                    ChunkCache chunkCache = session.getMain().getChunkCache();
+                    byte[] source = chunk.hasCompressedData() ? chunk.getData() : null;
+                    int cacheBitmap = groundUp ? bitmap | 1 << 16 : bitmap & 65535;
+
+                    chunkData = chunkCache.get(MinecraftVersion.R1_8, dimension, chunkX, chunkZ, cacheBitmap, source);
+
+                    if (chunkData == null) {
+                        V1_3ToV1_8ChunkTranslator chunkTransformer = new V1_3ToV1_8ChunkTranslator(
+                                session, chunk.getUncompressedData(), bitmap, skyLight, groundUp
+                        );
+
+                        chunkData = chunkTransformer.getChunkData();
 
-                    boolean skyLight = true;
-                    if (storage.hasObject(DimensionTracker.class)) {
-                        DimensionTracker tracker = storage.get(DimensionTracker.class);
-                        skyLight = tracker.getDimension() == 0;
+                        // portal frames depend on per-session state
+                        if (!chunkTransformer.hasPortalBlocks()) {
+                            chunkCache.put(MinecraftVersion.R1_8, dimension, chunkX, chunkZ, cacheBitmap, source,
+                                    chunkData, chunkData.length);
+                        }
                     }
-                    chunkTransformer = new V1_3ToV1_8ChunkTranslator(session, chunk.getUncompressedData(), bitmap, skyLight, groundUp);
                 }
 
-                V1_8Chunk newChunk = new V1_8Chunk(chunkX, chunkZ, groundUp, bitmap, chunkTransformer.getChunkData());
+                V1_8Chunk newChunk = new V1_8Chunk(chunkX, chunkZ, groundUp, bitmap, chunkData);
 
                 return PacketUtil.createPacket(0x21, new TypeHolder[]{
                         new TypeHolder<>(Type.V1_8R_CHUNK, newChunk)
@@ -334,32 +413,54 @@ public class ProtocolRelease47To5 extends ServerProtocol {
 
                 int columnAmount = oldChunkBulk.getChunks().length;
 
-                V1_3ToV1_8ChunkTranslator[] bulks = new V1_3ToV1_8ChunkTranslator[columnAmount];
+                ChunkCache chunkCache = session.getMain().getChunkCache();
+                int dimension = getDimension(session);
 
-                for (int i = 0; i < columnAmount; i++) {
-                    bulks[i] = new V1_3ToV1_8ChunkTranslator(
-                            session,
-                            oldChunkBulk.getChunks()[i],
-                            oldChunkBulk.getPrimaryBitmaps()[i],
-                            oldChunkBulk.isSkylight(),
-                            true
-                    );
-                }
+                byte[][] sources = oldChunkBulk.getChunks();
+                int[] bitmaps = oldChunkBulk.getPrimaryBitmaps();
+                boolean skyLight = oldChunkBulk.isSkylight();
 
-                V1_8ChunkBulk.Chunk[] chunks = new V1_8ChunkBulk.Chunk[columnAmount];
+                ChunkBulkWorker worker = session.getStorage().get(ChunkBulkWorker.class);
 
-                for (int i = 0; i < columnAmount; i++) {
-                    chunks[i] = new V1_8ChunkBulk.Chunk();
+                if (worker != null && columnAmount > 1 && session.getUserData().getClientVersion() == getFrom()) {
+                    // translate columns in parallel, packets sent later will wait for it
+                    session.sendPacketAsync(worker.submit(() -> {
+                        byte[][] columns = new byte[columnAmount][];
+                        List<ForkJoinTask<?>> tasks = new ArrayList<>(columnAmount);
+
+                        for (int i = 0; i < columnAmount; i++) {
+                            int index = i;
 
-                    chunks[i].setData(bulks[i].getChunkData());
-                    chunks[i].setDataSize(oldChunkBulk.getPrimaryBitmaps()[i]);
+                            tasks.add(ForkJoinTask.adapt(() -> {
+                                columns[index] = translateBulkColumn(null, chunkCache,
+                                        dimension, x[index], z[index], bitmaps[index], sources[index], skyLight);
+                            }));
+                        }
+
+                        ForkJoinTask.invokeAll(tasks);
+                        return columns;
+                    }, columns -> {
+                        for (int i = 0; i < columnAmount; i++) {
+                            if (columns[i] == null) {
+                                // columns with portal blocks are finished on the event loop
+                                columns[i] = translateBulkColumn(session, chunkCache,
+                                        dimension, x[i], z[i], bitmaps[i], sources[i], skyLight);
+                            }
+                        }
+
+                        return createChunkBulk(oldChunkBulk, columns);
+                    }));
+
+                    return ServerProtocol.cancel();
                 }
 
-                V1_8ChunkBulk chunkBulk = new V1_8ChunkBulk(oldChunkBulk.isSkylight(), x, z, chunks);
+                byte[][] columns = new byte[columnAmount][];
 
-                return PacketUtil.createPacket(0x26, new TypeHolder[]{
-                        set(Type.V1_8R_CHUNK_BULK, chunkBulk)
-                });
+                for (int i = 0; i < columnAmount; i++) {
+                    columns[i] = translateBulkColumn(session, chunkCache, dimension, x[i], z[i], bitmaps[i], sources[i], skyLight);
+                }
+
+                return createChunkBulk(oldChunkBulk, columns);
             }
         });
 
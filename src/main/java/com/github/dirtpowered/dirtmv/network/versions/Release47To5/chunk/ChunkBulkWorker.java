@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.dirtpowered.dirtmv.network.versions.Release47To5.chunk;
+
+import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
+import io.netty.channel.EventLoop;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Translates chunk bulks of one session on shared worker pool. Only a limited amount of
+ * bulks is running at once, so a single joining player can't take the whole pool
+ */
+public class ChunkBulkWorker {
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private final ForkJoinPool pool;
+    private final EventLoop eventLoop;
+    private final int maxBulks;
+
+    private int running;
+
+    public ChunkBulkWorker(ForkJoinPool pool, EventLoop eventLoop, int maxBulks) {
+        this.pool = pool;
+        this.eventLoop = eventLoop;
+        this.maxBulks = Math.max(maxBulks, 1);
+    }
+
+    /**
+     * Must be called from session event loop
+     *
+     * @param work   Translation done on worker pool, can't touch session state
+     * @param finish Final step done back on the event loop
+     * @return Future completed on the event loop
+     */
+    public <T> CompletableFuture<PacketData> submit(Supplier<T> work, Function<T, PacketData> finish) {
+        CompletableFuture<PacketData> future = new CompletableFuture<>();
+
+        Runnable task = () -> {
+            running++;
+
+            CompletableFuture.supplyAsync(work, pool).whenCompleteAsync((result, throwable) -> {
+                running--;
+
+                try {
+                    if (throwable != null) {
+                        future.completeExceptionally(throwable);
+                    } else {
+                        future.complete(finish.apply(result));
+                    }
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+
+                Runnable next = waiting.poll();
+                if (next != null) {
+                    next.run();
+                }
+            }, eventLoop);
+        };
+
+        if (running < maxBulks) {
+            task.run();
+        } else {
+            waiting.add(task);
+        }
+
+        return future;
+    }
+}
@@ -23,11 +23,12 @@
 package com.github.dirtpowered.dirtmv.network.versions.Release47To5.chunk;
 
 import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.network.server.ServerSession;
 import com.github.dirtpowered.dirtmv.network.versions.Beta17To14.storage.BlockStorage;
 
 public class PortalFrameCache extends BlockStorage {
 
-    public PortalFrameCache() {
-        super(MinecraftVersion.R1_8);
+    public PortalFrameCache(ServerSession session) {
+        super(MinecraftVersion.R1_8, session);
     }
 }
@@ -37,6 +37,7 @@ public class V1_3ToV1_8ChunkTranslator {
     private final boolean groundUp;
     private final boolean oldChunk;
     private final ServerSession session;
+    private boolean portalBlocks;
 
     public V1_3ToV1_8ChunkTranslator(ServerSession session, byte[] data, int bitmapValue, boolean skyLight, boolean groundUp) {
         V1_2RChunkStorage chunkStorage = new V1_2RChunkStorage(skyLight, false, 0, 0);
@@ -49,6 +50,14 @@ public class V1_3ToV1_8ChunkTranslator {
         this.session = session;
     }
 
+    /**
+     * Creates translator not bound to any session, safe to use off the event loop.
+     * Chunks containing portal blocks can't be translated that way, see {@link #getChunkData()}
+     */
+    public V1_3ToV1_8ChunkTranslator(byte[] data, int bitmapValue, boolean skyLight, boolean groundUp) {
+        this(null, data, bitmapValue, skyLight, groundUp);
+    }
+
     public V1_3ToV1_8ChunkTranslator(ServerSession session, V1_2RChunkStorage storage, boolean groundUp, int bitmapValue) {
         this.chunkStorage = storage;
         this.groundUp = groundUp;
@@ -57,6 +66,9 @@ public class V1_3ToV1_8ChunkTranslator {
         this.session = session;
     }
 
+    /**
+     * @return Translated chunk data, null if translator has no session and chunk contains portal blocks
+     */
     public byte[] getChunkData() {
         ExtendedBlockStorage[] columnStorage = chunkStorage.getColumnStorage();
         List<ExtendedBlockStorage> blockStorages = new ArrayList<>();
@@ -77,7 +89,10 @@ public class V1_3ToV1_8ChunkTranslator {
             }
         }
 
-        byte[] data = new byte[ChunkUtils.calculateDataSize(Integer.bitCount(columnBits), skyLight)];
+        // biomes are sent only with full chunks
+        int dataSize = ChunkUtils.calculateDataSize(Integer.bitCount(columnBits), skyLight) - (this.groundUp ? 0 : 256);
+
+        byte[] data = new byte[dataSize];
         int totalSize = 0;
 
         for (int i = 0; i < blockStorages.size(); i++) {
@@ -93,6 +108,13 @@ public class V1_3ToV1_8ChunkTranslator {
                 int blockData = blockStorage.getBlockMetadataArray().getNibble(x, y, z);
 
                 if (DataFixers.shouldCache(blockId)) {
+                    portalBlocks = true;
+
+                    if (session == null) {
+                        // portal frames need session state
+                        return null;
+                    }
+
                     ProtocolStorage storage = session.getStorage();
                     PortalFrameCache portalFrameCache = storage.get(PortalFrameCache.class);
 
@@ -123,13 +145,17 @@ public class V1_3ToV1_8ChunkTranslator {
         }
 
         if (this.groundUp) {
-            totalSize = writeData(biomes, data, totalSize);
+            writeData(biomes, data, totalSize);
         }
 
-        byte[] chunk = new byte[totalSize];
-        System.arraycopy(data, 0, chunk, 0, totalSize);
+        return data;
+    }
 
-        return chunk;
+    /**
+     * @return true if translated chunk depends on session portal frame cache
+     */
+    public boolean hasPortalBlocks() {
+        return portalBlocks;
     }
 
     private int writeData(byte[] bytes, byte[] original, int saveOffset) {
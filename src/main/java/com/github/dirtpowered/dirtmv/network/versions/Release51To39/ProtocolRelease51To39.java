@@ -72,7 +72,7 @@ public class ProtocolRelease51To39 extends ServerProtocol {
         ProtocolStorage storage = session.getStorage();
 
         if (!storage.hasObject(BlockStorage.class)) {
-            storage.set(BlockStorage.class, new BlockStorage(MinecraftVersion.R1_3_1));
+            storage.set(BlockStorage.class, new BlockStorage(MinecraftVersion.R1_3_1, session));
         }
     }
 
@@ -120,8 +120,12 @@ public class ProtocolRelease51To39 extends ServerProtocol {
                     storage.set(DimensionTracker.class, new DimensionTracker());
                 }
 
-                DimensionTracker dimensionTracker = session.getStorage().get(DimensionTracker.class);
-                dimensionTracker.setDimension(data.read(Type.BYTE, 3));
+                byte dimension = data.read(Type.BYTE, 3);
+
+                DimensionTracker dimensionTracker = storage.get(DimensionTracker.class);
+                dimensionTracker.setDimension(dimension);
+
+                storage.get(BlockStorage.class).setDimension(dimension);
                 return data;
             }
         });
@@ -131,8 +135,13 @@ public class ProtocolRelease51To39 extends ServerProtocol {
 
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
-                DimensionTracker dimensionTracker = session.getStorage().get(DimensionTracker.class);
-                dimensionTracker.setDimension(data.read(Type.INT, 0));
+                ProtocolStorage storage = session.getStorage();
+                int dimension = data.read(Type.INT, 0);
+
+                DimensionTracker dimensionTracker = storage.get(DimensionTracker.class);
+                dimensionTracker.setDimension(dimension);
+
+                storage.get(BlockStorage.class).setDimension(dimension);
                 return data;
             }
         });
@@ -303,7 +312,7 @@ public class ProtocolRelease51To39 extends ServerProtocol {
 
             @Override
             public PacketData translate(ServerSession session, PacketData data) {
-                session.sendPacket(data, PacketDirection.TO_CLIENT, getFrom());
+                session.sendPacket(data.copy(), PacketDirection.TO_CLIENT, getFrom());
 
                 byte type = data.read(Type.BYTE, 1);
                 int itemId = 0;
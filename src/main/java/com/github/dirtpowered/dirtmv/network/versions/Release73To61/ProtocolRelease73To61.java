@@ -93,7 +93,7 @@ public class ProtocolRelease73To61 extends ServerProtocol {
                 session.getUserData().getProtocolStorage().set(EntityTracker.class, tracker);
 
                 // send entity attributes (fixes fast movement)
-                session.sendPacket(data, PacketDirection.TO_CLIENT, getFrom());
+                session.sendPacket(data.copy(), PacketDirection.TO_CLIENT, getFrom());
                 session.sendPacket(getDefaultAttributes(entityId), PacketDirection.TO_CLIENT, getFrom());
 
                 return cancel();
@@ -107,7 +107,7 @@ public class ProtocolRelease73To61 extends ServerProtocol {
             public PacketData translate(ServerSession session, PacketData data) {
                 int entityId = session.getUserData().getEntityId();
 
-                session.sendPacket(data, PacketDirection.TO_CLIENT, getFrom());
+                session.sendPacket(data.copy(), PacketDirection.TO_CLIENT, getFrom());
                 session.sendPacket(getDefaultAttributes(entityId), PacketDirection.TO_CLIENT, getFrom());
 
                 return cancel();
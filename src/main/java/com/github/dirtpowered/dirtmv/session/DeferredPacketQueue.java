@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.session;
+
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import com.github.dirtpowered.dirtmv.data.MinecraftVersion;
+import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
+import com.github.dirtpowered.dirtmv.data.translator.PacketDirection;
+import io.netty.channel.EventLoop;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+/**
+ * Packets delivered on the next ticks, up to configured amount per tick.
+ * Queue is owned by session event loop, packets queued from other threads are handed over to it
+ */
+public class DeferredPacketQueue {
+    private final Queue<QueuedPacket> queue = new ArrayDeque<>();
+    private final EventLoop eventLoop;
+    private final Consumer<QueuedPacket> sender;
+
+    private final int budget;
+    private final int capacity;
+
+    private boolean flushScheduled;
+
+    // metrics
+    @Getter
+    private long delivered;
+
+    @Getter
+    private long overflows;
+
+    @Getter
+    private long backloggedTicks;
+
+    @Getter
+    private int highWaterMark;
+
+    public DeferredPacketQueue(EventLoop eventLoop, Configuration configuration, Consumer<QueuedPacket> sender) {
+        this.eventLoop = eventLoop;
+        this.sender = sender;
+        this.budget = configuration.getDeferredPacketsPerTick();
+        this.capacity = configuration.getDeferredQueueLimit();
+    }
+
+    public void add(PacketData packet, PacketDirection direction, MinecraftVersion version) {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> add(packet, direction, version));
+            return;
+        }
+
+        QueuedPacket queuedPacket = new QueuedPacket(packet, direction, version);
+
+        queue.add(queuedPacket);
+        highWaterMark = Math.max(highWaterMark, queue.size());
+
+        // don't let the queue grow without limit, whole backlog is delivered in order on a later loop task
+        if (queue.size() > capacity && !flushScheduled) {
+            overflows++;
+            flushScheduled = true;
+
+            eventLoop.execute(this::flush);
+        }
+    }
+
+    /**
+     * Delivers queued packets, up to per tick budget
+     */
+    public void drain() {
+        for (int i = 0; i < budget && !queue.isEmpty(); i++) {
+            deliver(queue.poll());
+        }
+
+        if (!queue.isEmpty()) {
+            backloggedTicks++;
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+
+        while (!queue.isEmpty()) {
+            deliver(queue.poll());
+        }
+    }
+
+    /**
+     * Drops all queued packets
+     */
+    public void clear() {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(this::clear);
+            return;
+        }
+
+        queue.forEach(queuedPacket -> queuedPacket.getPacket().release());
+        queue.clear();
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void deliver(QueuedPacket queuedPacket) {
+        delivered++;
+        sender.accept(queuedPacket);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class QueuedPacket {
+        private PacketData packet;
+        private PacketDirection direction;
+        private MinecraftVersion version;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.dirtpowered.dirtmv.session;
+
+import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
+import io.netty.channel.EventLoop;
+import org.pmw.tinylog.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Keeps client bound packets in order while some of them are still translated on worker threads.
+ * Packets are passed through directly until an asynchronous packet is pending, after that they wait
+ * for it. Queue is owned by session event loop, packets written from other threads are handed over to it
+ */
+public class OrderedPacketQueue {
+    private final Queue<Slot> slots = new ArrayDeque<>();
+    private final EventLoop eventLoop;
+    private final Consumer<PacketData> sender;
+    private final Runnable flush;
+
+    private int pending;
+
+    public OrderedPacketQueue(EventLoop eventLoop, Consumer<PacketData> sender, Runnable flush) {
+        this.eventLoop = eventLoop;
+        this.sender = sender;
+        this.flush = flush;
+    }
+
+    public void write(PacketData packet) {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> write(packet));
+            return;
+        }
+
+        if (slots.isEmpty()) {
+            sender.accept(packet);
+            return;
+        }
+
+        Slot slot = new Slot();
+        slot.packet = packet;
+        slot.done = true;
+
+        slots.add(slot);
+    }
+
+    /**
+     * @param future Packet translated off the event loop, failed future drops the packet
+     */
+    public void write(CompletableFuture<PacketData> future) {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> write(future));
+            return;
+        }
+
+        Slot slot = new Slot();
+
+        slots.add(slot);
+        pending++;
+
+        future.whenComplete((packet, throwable) -> {
+            if (throwable != null) {
+                Logger.error("asynchronous translation failed: {}", throwable.getMessage());
+            }
+
+            if (eventLoop.inEventLoop()) {
+                complete(slot, packet);
+            } else {
+                eventLoop.execute(() -> complete(slot, packet));
+            }
+        });
+    }
+
+    /**
+     * @return Amount of asynchronous packets not completed yet
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Drops all waiting packets
+     */
+    public void clear() {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(this::clear);
+            return;
+        }
+
+        for (Slot slot : slots) {
+            slot.dropped = true;
+
+            if (slot.packet != null) {
+                slot.packet.release();
+            }
+        }
+
+        slots.clear();
+    }
+
+    private void complete(Slot slot, PacketData packet) {
+        pending--;
+
+        if (slot.dropped) {
+            if (packet != null) {
+                packet.release();
+            }
+            return;
+        }
+
+        slot.packet = packet;
+        slot.done = true;
+
+        if (slots.peek() != slot) {
+            return;
+        }
+
+        while (!slots.isEmpty() && slots.peek().done) {
+            PacketData next = slots.poll().packet;
+
+            if (next != null) {
+                sender.accept(next);
+            }
+        }
+
+        flush.run();
+    }
+
+    private static class Slot {
+        private PacketData packet;
+        private boolean done;
+        private boolean dropped;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.session;
+
+import com.github.dirtpowered.dirtmv.api.Configuration;
+import com.github.dirtpowered.dirtmv.data.protocol.PacketData;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelOutboundBuffer;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes packets to channel and flushes them in batches - once per read burst
+ * or when packet count, pending bytes or delay limit is reached
+ */
+public class PacketWriter {
+    private final Channel channel;
+
+    private final boolean consolidate;
+    private final int maxPackets;
+    private final int maxBytes;
+    private final int maxDelay;
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    @Getter
+    private final LongAdder writes = new LongAdder();
+
+    @Getter
+    private final LongAdder flushes = new LongAdder();
+
+    public PacketWriter(Channel channel, Configuration configuration) {
+        this.channel = channel;
+        this.consolidate = configuration.enableFlushConsolidation();
+        this.maxPackets = configuration.getFlushMaxPackets();
+        this.maxBytes = configuration.getFlushMaxBytes();
+        this.maxDelay = configuration.getFlushMaxDelay();
+    }
+
+    /**
+     * Writes packet to channel, flush may be delayed
+     *
+     * @param packetData {@link PacketData} Packet
+     */
+    public void write(PacketData packetData) {
+        // raw payload is released by encoder, pooled packet can be reused only after write is done
+        ChannelFutureListener listener = future -> packetData.release();
+
+        writes.increment();
+
+        if (!consolidate) {
+            flushes.increment();
+            channel.writeAndFlush(packetData).addListener(listener);
+            return;
+        }
+
+        channel.write(packetData).addListener(listener);
+
+        if (pendingWrites.incrementAndGet() >= maxPackets || getPendingBytes() >= maxBytes) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            channel.eventLoop().schedule(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, maxDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Flushes all pending packets
+     */
+    public void flush() {
+        if (pendingWrites.getAndSet(0) > 0) {
+            flushes.increment();
+            channel.flush();
+        }
+    }
+
+    /**
+     * Average amount of packets sent in one flush
+     */
+    public double getWritesPerFlush() {
+        long flushCount = flushes.sum();
+
+        return flushCount == 0 ? 0 : (double) writes.sum() / flushCount;
+    }
+
+    private long getPendingBytes() {
+        ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+
+        return outboundBuffer == null ? 0 : outboundBuffer.totalPendingWriteBytes();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020-2021 Dirt Powered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.dirtpowered.dirtmv.session;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects tick timings of all sessions
+ */
+public class TickTimings {
+    public static final long TICK_TIME = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Getter
+    private final Map<Class<?>, Timing> timings = new ConcurrentHashMap<>();
+
+    @Getter
+    private final LongAdder overruns = new LongAdder();
+
+    /**
+     * @param type  Ticked object class
+     * @param nanos Time spent in tick
+     */
+    public void record(Class<?> type, long nanos) {
+        timings.computeIfAbsent(type, key -> new Timing()).record(nanos);
+    }
+
+    public void recordOverrun() {
+        overruns.increment();
+    }
+
+    @Getter
+    public static class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public double getAverageMillis() {
+            long ticks = count.sum();
+
+            return ticks == 0 ? 0 : totalNanos.sum() / (double) ticks / 1_000_000;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000D;
+        }
+    }
+}